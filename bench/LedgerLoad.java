@@ -0,0 +1,159 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator for the REST API. Every virtual thread sends one request, waits
+ * for the answer and sends the next, against randomly chosen accounts, for the given time.
+ * Requests in the warm-up period are not counted.
+ *
+ * <pre>
+ * java bench/LedgerLoad.java --mode deposit --accounts 1,2,3 --concurrency 200 --duration 30s
+ * </pre>
+ *
+ * Modes: {@code balance}, {@code balance-etag} (sends the last ETag seen for the account),
+ * {@code history}, {@code deposit}, {@code transfer} (between two of the given accounts).
+ * Prints throughput, latency percentiles and the count of every HTTP status seen.
+ */
+public class LedgerLoad {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        String mode = options.getOrDefault("mode", "balance");
+        long[] accounts = Arrays.stream(options.getOrDefault("accounts", "1").split(","))
+            .mapToLong(Long::parseLong).toArray();
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        Duration duration = duration(options.getOrDefault("duration", "20s"));
+        Duration warmup = duration(options.getOrDefault("warmup", "5s"));
+
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        Map<Long, String> etags = new ConcurrentHashMap<>();
+        List<Recorder> recorders = new ArrayList<>();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Recorder recorder = new Recorder();
+                recorders.add(recorder);
+                callers.submit(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        long account = accounts[ThreadLocalRandom.current().nextInt(accounts.length)];
+                        HttpRequest request = request(baseUrl, mode, account, accounts, etags);
+                        int status;
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            status = response.statusCode();
+                            response.headers().firstValue("ETag").ifPresent(tag -> etags.put(account, tag));
+                        } catch (Exception ex) {
+                            status = -1;
+                        }
+                        if (now >= measureFrom) {
+                            recorder.record(System.nanoTime() - now, status);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        for (Recorder recorder : recorders) {
+            latencies.addAll(recorder.latencies);
+            recorder.statuses.forEach((status, count) -> statuses.merge(status, count, Integer::sum));
+        }
+        latencies.sort(null);
+        System.out.printf("mode=%s concurrency=%d duration=%ds requests=%d throughput=%.0f/s "
+                + "p50=%.1fms p99=%.1fms max=%.1fms statuses=%s%n",
+            mode, concurrency, duration.toSeconds(), latencies.size(),
+            latencies.size() / (double) duration.toSeconds(),
+            percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0), statuses);
+    }
+
+    private static HttpRequest request(String baseUrl, String mode, long account, long[] accounts,
+                                       Map<Long, String> etags) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        return switch (mode) {
+            case "balance" -> builder.uri(URI.create(baseUrl + "/accounts/" + account + "/balance")).GET().build();
+            case "balance-etag" -> {
+                String etag = etags.get(account);
+                if (etag != null) {
+                    builder.header("If-None-Match", etag);
+                }
+                yield builder.uri(URI.create(baseUrl + "/accounts/" + account + "/balance")).GET().build();
+            }
+            case "history" -> builder.uri(URI.create(baseUrl + "/accounts/" + account + "/transactions?limit=50")).GET().build();
+            case "deposit" -> json(builder, baseUrl + "/accounts/" + account + "/deposits",
+                "{\"amount\": 1.00, \"description\": \"load\"}");
+            case "transfer" -> {
+                long target = account;
+                while (target == account) {
+                    target = accounts[ThreadLocalRandom.current().nextInt(accounts.length)];
+                }
+                yield json(builder, baseUrl + "/transfers", "{\"sourceAccountId\": " + account
+                    + ", \"targetAccountId\": " + target + ", \"amount\": 0.01, \"description\": \"load\"}");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String url, String body) {
+        return builder.uri(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.size() * p) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /** Per-thread results, so recording needs no synchronization. */
+    private static final class Recorder {
+        final List<Long> latencies = new ArrayList<>();
+        final Map<Integer, Integer> statuses = new HashMap<>();
+
+        void record(long latencyNanos, int status) {
+            latencies.add(latencyNanos);
+            statuses.merge(status, 1, Integer::sum);
+        }
+    }
+}
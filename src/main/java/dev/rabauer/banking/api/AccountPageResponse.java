@@ -0,0 +1,10 @@
+package dev.rabauer.banking.api;
+
+import java.util.List;
+
+/**
+ * One page of the account list. The next page starts after (nextAfterOwner,
+ * nextAfterAccountNumber); both are null on the last page.
+ */
+public record AccountPageResponse(List<AccountResponse> items, String nextAfterOwner, String nextAfterAccountNumber) {
+}
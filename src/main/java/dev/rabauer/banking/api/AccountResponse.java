@@ -0,0 +1,13 @@
+package dev.rabauer.banking.api;
+
+import dev.rabauer.banking.entity.Account;
+
+import java.time.LocalDateTime;
+
+public record AccountResponse(Long id, String accountNumber, String ownerName, LocalDateTime createdAt) {
+
+    static AccountResponse of(Account account) {
+        return new AccountResponse(account.getId(), account.getAccountNumber(), account.getOwnerName(),
+            account.getCreatedAt());
+    }
+}
@@ -0,0 +1,7 @@
+package dev.rabauer.banking.api;
+
+import java.math.BigDecimal;
+
+/** Body of deposit and withdrawal requests. */
+public record AmountRequest(BigDecimal amount, String description) {
+}
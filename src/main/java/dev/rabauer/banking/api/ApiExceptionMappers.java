@@ -0,0 +1,62 @@
+package dev.rabauer.banking.api;
+
+import dev.rabauer.banking.service.AccountNotFoundException;
+import dev.rabauer.banking.service.CommitOutcomeUnknownException;
+import dev.rabauer.banking.service.InsufficientFundsException;
+import dev.rabauer.banking.service.ScheduledTransferNotActiveException;
+import dev.rabauer.banking.service.ScheduledTransferNotFoundException;
+import dev.rabauer.banking.service.ServerBusyException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+import java.util.Map;
+
+/** Maps service-layer exceptions to HTTP status codes with a small JSON error body. */
+public class ApiExceptionMappers {
+
+    @ServerExceptionMapper
+    public Response insufficientFunds(InsufficientFundsException ex) {
+        return error(Response.Status.CONFLICT, ex).build();
+    }
+
+    /** More specific than {@link #invalidArgument}, so it wins for unknown accounts. */
+    @ServerExceptionMapper
+    public Response accountNotFound(AccountNotFoundException ex) {
+        return error(Response.Status.NOT_FOUND, ex).build();
+    }
+
+    @ServerExceptionMapper
+    public Response scheduledTransferNotFound(ScheduledTransferNotFoundException ex) {
+        return error(Response.Status.NOT_FOUND, ex).build();
+    }
+
+    @ServerExceptionMapper
+    public Response invalidArgument(IllegalArgumentException ex) {
+        return error(Response.Status.BAD_REQUEST, ex).build();
+    }
+
+    /** Cancelling an order that has already completed, failed or been cancelled. */
+    @ServerExceptionMapper
+    public Response notActive(ScheduledTransferNotActiveException ex) {
+        return error(Response.Status.CONFLICT, ex).build();
+    }
+
+    /** Admission control rejected the call: nothing was read or written, the client should back off. */
+    @ServerExceptionMapper
+    public Response busy(ServerBusyException ex) {
+        return error(Response.Status.SERVICE_UNAVAILABLE, ex)
+            .header("Retry-After", "1")
+            .build();
+    }
+
+    /** The write may or may not have happened; the client must check before retrying. */
+    @ServerExceptionMapper
+    public Response outcomeUnknown(CommitOutcomeUnknownException ex) {
+        return error(Response.Status.INTERNAL_SERVER_ERROR, ex).build();
+    }
+
+    private static Response.ResponseBuilder error(Response.Status status, RuntimeException ex) {
+        return Response.status(status)
+            .entity(Map.of("error", String.valueOf(ex.getMessage())));
+    }
+}
@@ -0,0 +1,6 @@
+package dev.rabauer.banking.api;
+
+import java.math.BigDecimal;
+
+public record BalanceResponse(Long accountId, String accountNumber, BigDecimal balance) {
+}
@@ -0,0 +1,230 @@
+package dev.rabauer.banking.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.repository.HistoryEntry;
+import dev.rabauer.banking.repository.LedgerSummary;
+import dev.rabauer.banking.service.AccountDirectory;
+import dev.rabauer.banking.service.AccountService;
+import dev.rabauer.banking.service.AdmissionControlled;
+import dev.rabauer.banking.service.AdmissionController;
+import dev.rabauer.banking.service.GroupCommitService;
+import dev.rabauer.banking.service.TransactionService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * JSON API for machine clients of the ledger, served under {@code /api}
+ * (quarkus.rest.path) so Vaadin requests never pass through REST routing. Every endpoint runs on a virtual thread, so a
+ * request blocked on an account lock or on admission control costs no platform thread.
+ * Writes go through {@link TransactionService} (deposits via {@link GroupCommitService}, which
+ * may group them) and therefore through the same admission control and locking as the UI.
+ * Reads are admitted as the {@value #READ} operation, so a burst of API reads queues or is
+ * answered with 503 instead of taking the connections the UI needs.
+ */
+@Path("/")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class LedgerResource {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    static final String READ = "read";
+
+    @Inject
+    AccountService accountService;
+
+    @Inject
+    TransactionService transactionService;
+
+    @Inject
+    GroupCommitService groupCommitService;
+
+    @Inject
+    AccountDirectory directory;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    /**
+     * One page of all accounts ordered by owner, then account number, keyset-paginated: pass
+     * nextAfterOwner and nextAfterAccountNumber of a page to get the next one.
+     */
+    @GET
+    @Path("/accounts")
+    @AdmissionControlled(READ)
+    public AccountPageResponse accounts(@QueryParam("afterOwner") String afterOwner,
+                                        @QueryParam("afterAccountNumber") String afterAccountNumber,
+                                        @QueryParam("limit") @DefaultValue("50") int limit) {
+        if ((afterOwner == null) != (afterAccountNumber == null)) {
+            throw new BadRequestException("afterOwner and afterAccountNumber must be given together");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Account> page = accountService.findPage(afterOwner, afterAccountNumber, limit);
+        Account last = page.size() == limit ? page.get(page.size() - 1) : null;
+        return new AccountPageResponse(page.stream().map(AccountResponse::of).toList(),
+            last != null ? last.getOwnerName() : null,
+            last != null ? last.getAccountNumber() : null);
+    }
+
+    /**
+     * Current balance with an ETag derived from the ledger version. A matching If-None-Match
+     * is answered with 304 after an index-only lookup of the version, without summing the ledger.
+     */
+    @GET
+    @Path("/accounts/{id}/balance")
+    @AdmissionControlled(READ)
+    public Response balance(@PathParam("id") Long accountId, @Context Request request) {
+        requireAccount(accountId);
+        Response.ResponseBuilder notModified =
+            request.evaluatePreconditions(etag(accountId, accountService.ledgerVersion(accountId)));
+        if (notModified != null) {
+            return notModified.build();
+        }
+        LedgerSummary summary = accountService.summarizeLedger(accountId);
+        return Response.ok(new BalanceResponse(accountId, directory.accountNumber(accountId), summary.balance()))
+            .tag(etag(accountId, summary.version()))
+            .build();
+    }
+
+    /**
+     * One page of history, newest first, serialized while it is read from the database:
+     * {@code {"items": [...], "nextBeforeId": 123}}. Pass nextBeforeId as beforeId for the
+     * next page; it is null on the last page. The body is written after this method returns,
+     * so the read slot is held until the response has ended.
+     */
+    @GET
+    @Path("/accounts/{id}/transactions")
+    public Response history(@PathParam("id") Long accountId,
+                            @QueryParam("beforeId") Long beforeId,
+                            @QueryParam("limit") @DefaultValue("50") int limit,
+                            @Context RoutingContext routingContext) {
+        AdmissionController.Permit permit = admissionController.admit(READ);
+        routingContext.addEndHandler(ended -> permit.close());
+        requireAccount(accountId);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        StreamingOutput body = out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+                long[] written = {0, 0};   // count, last id
+                transactionService.streamTransactionHistory(accountId, beforeId, limit, entry -> {
+                    writeEntry(json, accountId, entry);
+                    written[0]++;
+                    written[1] = entry.id();
+                });
+                json.writeEndArray();
+                if (written[0] == limit) {
+                    json.writeNumberField("nextBeforeId", written[1]);
+                } else {
+                    json.writeNullField("nextBeforeId");
+                }
+                json.writeEndObject();
+            }
+        };
+        return Response.ok(body).build();
+    }
+
+    // ── Writes ────────────────────────────────────────────────────────────────
+
+    @POST
+    @Path("/accounts/{id}/deposits")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response deposit(@PathParam("id") Long accountId, AmountRequest body) {
+        requireBody(body);
+        return Response.status(Response.Status.CREATED)
+            .entity(TransactionResponse.of(accountId, groupCommitService.deposit(accountId, body.amount(), body.description())))
+            .build();
+    }
+
+    @POST
+    @Path("/accounts/{id}/withdrawals")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response withdraw(@PathParam("id") Long accountId, AmountRequest body) {
+        requireBody(body);
+        return Response.status(Response.Status.CREATED)
+            .entity(TransactionResponse.of(transactionService.withdraw(accountId, body.amount(), body.description())))
+            .build();
+    }
+
+    @POST
+    @Path("/transfers")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response transfer(TransferRequest body) {
+        requireBody(body);
+        if (body.sourceAccountId() == null || body.targetAccountId() == null) {
+            throw new BadRequestException("sourceAccountId and targetAccountId are required");
+        }
+        transactionService.transfer(body.sourceAccountId(), body.targetAccountId(), body.amount(), body.description());
+        return Response.noContent().build();
+    }
+
+    // --- Private helpers ---
+
+    private void requireAccount(Long accountId) {
+        if (!directory.contains(accountId)) {
+            throw new NotFoundException("Account not found: " + accountId);
+        }
+    }
+
+    private static void requireBody(Object body) {
+        if (body == null) {
+            throw new BadRequestException("Request body is required");
+        }
+    }
+
+    private static EntityTag etag(Long accountId, String ledgerVersion) {
+        return new EntityTag(accountId + "-" + ledgerVersion);
+    }
+
+    private static void writeEntry(JsonGenerator json, Long accountId, HistoryEntry entry) {
+        try {
+            json.writeStartObject();
+            json.writeNumberField("id", entry.id());
+            json.writeNumberField("accountId", accountId);
+            json.writeStringField("type", entry.type().name());
+            json.writeNumberField("amount", entry.amount());
+            if (entry.counterAccountId() != null) {
+                json.writeNumberField("counterAccountId", entry.counterAccountId());
+            } else {
+                json.writeNullField("counterAccountId");
+            }
+            json.writeStringField("description", entry.description());
+            json.writeObjectField("createdAt", entry.createdAt());
+            json.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
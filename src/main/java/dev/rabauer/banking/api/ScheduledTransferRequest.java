@@ -0,0 +1,10 @@
+package dev.rabauer.banking.api;
+
+import dev.rabauer.banking.entity.Recurrence;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ScheduledTransferRequest(Long sourceAccountId, Long targetAccountId, BigDecimal amount,
+                                       String description, LocalDateTime firstDueAt, Recurrence recurrence) {
+}
@@ -0,0 +1,77 @@
+package dev.rabauer.banking.api;
+
+import dev.rabauer.banking.entity.ScheduledTransfer;
+import dev.rabauer.banking.service.AccountDirectory;
+import dev.rabauer.banking.service.ScheduledTransferService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+/**
+ * Future-dated transfers and standing orders. Occurrences are executed by
+ * {@link ScheduledTransferService}; creating one only stores the instruction.
+ */
+@Path("/")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class ScheduledTransferResource {
+
+    @Inject
+    ScheduledTransferService scheduledTransferService;
+
+    @Inject
+    AccountDirectory directory;
+
+    @GET
+    @Path("/accounts/{id}/scheduled-transfers")
+    public List<ScheduledTransferResponse> list(@PathParam("id") Long accountId) {
+        if (!directory.contains(accountId)) {
+            throw new NotFoundException("Account not found: " + accountId);
+        }
+        return scheduledTransferService.findActiveBySourceAccount(accountId).stream()
+            .map(ScheduledTransferResponse::of)
+            .toList();
+    }
+
+    @GET
+    @Path("/scheduled-transfers/{id}")
+    public ScheduledTransferResponse get(@PathParam("id") Long id) {
+        ScheduledTransfer st = scheduledTransferService.findById(id);
+        if (st == null) {
+            throw new NotFoundException("Scheduled transfer not found: " + id);
+        }
+        return ScheduledTransferResponse.of(st);
+    }
+
+    @POST
+    @Path("/scheduled-transfers")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response schedule(ScheduledTransferRequest body) {
+        if (body == null) {
+            throw new BadRequestException("Request body is required");
+        }
+        ScheduledTransfer st = scheduledTransferService.schedule(body.sourceAccountId(), body.targetAccountId(),
+            body.amount(), body.description(), body.firstDueAt(), body.recurrence());
+        return Response.status(Response.Status.CREATED)
+            .entity(ScheduledTransferResponse.of(st))
+            .build();
+    }
+
+    @DELETE
+    @Path("/scheduled-transfers/{id}")
+    public ScheduledTransferResponse cancel(@PathParam("id") Long id) {
+        return ScheduledTransferResponse.of(scheduledTransferService.cancel(id));
+    }
+}
@@ -0,0 +1,20 @@
+package dev.rabauer.banking.api;
+
+import dev.rabauer.banking.entity.Recurrence;
+import dev.rabauer.banking.entity.ScheduledTransfer;
+import dev.rabauer.banking.entity.ScheduledTransferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ScheduledTransferResponse(Long id, Long sourceAccountId, Long targetAccountId, BigDecimal amount,
+                                        String description, Recurrence recurrence, ScheduledTransferStatus status,
+                                        LocalDateTime dueAt, LocalDateTime nextAttemptAt, int attempts,
+                                        long executionCount, LocalDateTime lastExecutedAt) {
+
+    static ScheduledTransferResponse of(ScheduledTransfer st) {
+        return new ScheduledTransferResponse(st.getId(), st.getSourceAccountId(), st.getTargetAccountId(),
+            st.getAmount(), st.getDescription(), st.getRecurrence(), st.getStatus(), st.getDueAt(),
+            st.getNextAttemptAt(), st.getAttempts(), st.getExecutionCount(), st.getLastExecutedAt());
+    }
+}
@@ -0,0 +1,23 @@
+package dev.rabauer.banking.api;
+
+import dev.rabauer.banking.entity.Transaction;
+import dev.rabauer.banking.entity.TransactionType;
+import dev.rabauer.banking.repository.HistoryEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionResponse(Long id, Long accountId, TransactionType type, BigDecimal amount,
+                                  Long counterAccountId, String description, LocalDateTime createdAt) {
+
+    static TransactionResponse of(Transaction tx) {
+        return new TransactionResponse(tx.getId(), tx.getAccount().getId(), tx.getType(), tx.getAmount(),
+            tx.getTargetAccount() != null ? tx.getTargetAccount().getId() : null,
+            tx.getDescription(), tx.getCreatedAt());
+    }
+
+    static TransactionResponse of(Long accountId, HistoryEntry entry) {
+        return new TransactionResponse(entry.id(), accountId, entry.type(), entry.amount(),
+            entry.counterAccountId(), entry.description(), entry.createdAt());
+    }
+}
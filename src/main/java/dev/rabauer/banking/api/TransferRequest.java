@@ -0,0 +1,6 @@
+package dev.rabauer.banking.api;
+
+import java.math.BigDecimal;
+
+public record TransferRequest(Long sourceAccountId, Long targetAccountId, BigDecimal amount, String description) {
+}
@@ -1,12 +1,22 @@
 package dev.rabauer.banking.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Account metadata is written once and read constantly, so both the entity and its
+ * natural-id (account number) resolution live in the Hibernate second-level cache.
+ * Region sizes and expiry are configured in application.properties.
+ */
 @Entity
 @Table(name = "account")
+@Cacheable
+@NaturalIdCache
 public class Account {
 
     @Id
@@ -17,7 +27,8 @@ public class Account {
     @Column(name = "owner_name", nullable = false, length = 255)
     private String ownerName;
 
-    @Column(name = "account_number", nullable = false, unique = true, length = 20)
+    @NaturalId
+    @Column(name = "account_number", nullable = false, unique = true, updatable = false, length = 20)
     private String accountNumber;
 
     @Column(name = "created_at", nullable = false, updatable = false)
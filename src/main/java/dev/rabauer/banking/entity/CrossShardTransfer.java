@@ -0,0 +1,82 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Source-shard record of a transfer whose target account lives on another shard. Written in
+ * the same transaction as the debit; PENDING until the target shard has applied the credit.
+ */
+@Entity
+@Table(name = "cross_shard_transfer")
+public class CrossShardTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cross_shard_transfer_seq")
+    @SequenceGenerator(name = "cross_shard_transfer_seq", sequenceName = "cross_shard_transfer_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "source_account_id", nullable = false, updatable = false)
+    private Long sourceAccountId;
+
+    @Column(name = "target_account_id", nullable = false, updatable = false)
+    private Long targetAccountId;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(name = "description", updatable = false, length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CrossShardTransferStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public Long getSourceAccountId() { return sourceAccountId; }
+    public void setSourceAccountId(Long sourceAccountId) { this.sourceAccountId = sourceAccountId; }
+
+    public Long getTargetAccountId() { return targetAccountId; }
+    public void setTargetAccountId(Long targetAccountId) { this.targetAccountId = targetAccountId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public CrossShardTransferStatus getStatus() { return status; }
+    public void setStatus(CrossShardTransferStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,8 @@
+package dev.rabauer.banking.entity;
+
+public enum CrossShardTransferStatus {
+    PENDING,
+    COMPLETED,
+    /** Recovery gave up after max-recovery-attempts; the debit stands and needs an operator. */
+    FAILED
+}
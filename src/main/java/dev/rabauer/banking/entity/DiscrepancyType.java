@@ -0,0 +1,24 @@
+package dev.rabauer.banking.entity;
+
+public enum DiscrepancyType {
+    /** Outgoing TRANSFER leg without the matching incoming leg on the target account. */
+    UNMATCHED_TRANSFER_DEBIT,
+    /** Incoming TRANSFER leg without the matching outgoing leg on the source account. */
+    UNMATCHED_TRANSFER_CREDIT,
+    /** Account whose ledger sums to less than zero. */
+    NEGATIVE_BALANCE,
+    /** Sum of all amounts differs from deposits minus withdrawals, i.e. transfers do not net to zero. */
+    LEDGER_IMBALANCE,
+    /** Id range that failed on every attempt and was skipped; nothing in it was verified. */
+    RANGE_UNVERIFIED,
+    /** Cross-shard transfer still PENDING long after it was debited. */
+    CROSS_SHARD_TRANSFER_STUCK,
+    /** Cross-shard transfer whose recovery gave up; the debit has no credit. */
+    CROSS_SHARD_TRANSFER_FAILED,
+    /** COMPLETED cross-shard transfer without a credit row on the target shard. */
+    CROSS_SHARD_CREDIT_MISSING,
+    /** Credit row that booked another account or amount than its transfer. */
+    CROSS_SHARD_CREDIT_MISMATCH,
+    /** Credit row whose transfer does not exist on the source shard. */
+    CROSS_SHARD_CREDIT_ORPHANED
+}
@@ -0,0 +1,57 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a {@link PostingRun}: accounts with ids in (afterAccountId, lastAccountId]
+ * have received their postings.
+ */
+@Entity
+@Table(name = "posting_chunk")
+public class PostingChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posting_chunk_seq")
+    @SequenceGenerator(name = "posting_chunk_seq", sequenceName = "posting_chunk_seq", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "run_id", nullable = false)
+    private PostingRun run;
+
+    @Column(name = "after_account_id", nullable = false)
+    private long afterAccountId;
+
+    @Column(name = "last_account_id", nullable = false)
+    private long lastAccountId;
+
+    @Column(name = "posting_count", nullable = false)
+    private int postingCount;
+
+    @Column(name = "completed_at", nullable = false, updatable = false)
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.completedAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public PostingRun getRun() { return run; }
+    public void setRun(PostingRun run) { this.run = run; }
+
+    public long getAfterAccountId() { return afterAccountId; }
+    public void setAfterAccountId(long afterAccountId) { this.afterAccountId = afterAccountId; }
+
+    public long getLastAccountId() { return lastAccountId; }
+    public void setLastAccountId(long lastAccountId) { this.lastAccountId = lastAccountId; }
+
+    public int getPostingCount() { return postingCount; }
+    public void setPostingCount(int postingCount) { this.postingCount = postingCount; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
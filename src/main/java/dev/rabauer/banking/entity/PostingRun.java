@@ -0,0 +1,84 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Month-end interest and fee posting for one period (e.g. {@code 2026-09}).
+ * Parameters and the account id bound are frozen at start, so a resumed run
+ * posts exactly what the original attempt would have.
+ */
+@Entity
+@Table(name = "posting_run")
+public class PostingRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posting_run_seq")
+    @SequenceGenerator(name = "posting_run_seq", sequenceName = "posting_run_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "period", nullable = false, unique = true, updatable = false, length = 7)
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PostingStatus status;
+
+    /** Annual rate, e.g. 0.0125 for 1.25 %; one twelfth is credited per period. */
+    @Column(name = "interest_rate", nullable = false, precision = 9, scale = 6)
+    private BigDecimal interestRate;
+
+    @Column(name = "monthly_fee", nullable = false, precision = 19, scale = 4)
+    private BigDecimal monthlyFee;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "max_account_id", nullable = false)
+    private long maxAccountId;
+
+    @Column(name = "posting_count", nullable = false)
+    private long postingCount;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public PostingStatus getStatus() { return status; }
+    public void setStatus(PostingStatus status) { this.status = status; }
+
+    public BigDecimal getInterestRate() { return interestRate; }
+    public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; }
+
+    public BigDecimal getMonthlyFee() { return monthlyFee; }
+    public void setMonthlyFee(BigDecimal monthlyFee) { this.monthlyFee = monthlyFee; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public long getMaxAccountId() { return maxAccountId; }
+    public void setMaxAccountId(long maxAccountId) { this.maxAccountId = maxAccountId; }
+
+    public long getPostingCount() { return postingCount; }
+    public void setPostingCount(long postingCount) { this.postingCount = postingCount; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,7 @@
+package dev.rabauer.banking.entity;
+
+public enum PostingStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,87 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Marks an id range of a {@link ReconciliationRun} as verified, together with the partial
+ * sums needed for the run-wide ledger check. Range bounds are inclusive.
+ */
+@Entity
+@Table(name = "reconciliation_checkpoint")
+public class ReconciliationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_checkpoint_seq")
+    @SequenceGenerator(name = "reconciliation_checkpoint_seq", sequenceName = "reconciliation_checkpoint_seq", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "run_id", nullable = false)
+    private ReconciliationRun run;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    private ReconciliationScope scope;
+
+    @Column(name = "range_start", nullable = false)
+    private long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private long rangeEnd;
+
+    /** Sum of every amount in the range. */
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    /** Sum of positive non-transfer amounts in the range. */
+    @Column(name = "deposit_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal depositAmount = BigDecimal.ZERO;
+
+    /** Absolute sum of negative non-transfer amounts in the range. */
+    @Column(name = "withdrawal_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal withdrawalAmount = BigDecimal.ZERO;
+
+    /** False if the range kept failing and was given up; its sums are then all zero. */
+    @Column(name = "verified", nullable = false)
+    private boolean verified = true;
+
+    @Column(name = "completed_at", nullable = false, updatable = false)
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.completedAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public ReconciliationRun getRun() { return run; }
+    public void setRun(ReconciliationRun run) { this.run = run; }
+
+    public ReconciliationScope getScope() { return scope; }
+    public void setScope(ReconciliationScope scope) { this.scope = scope; }
+
+    public long getRangeStart() { return rangeStart; }
+    public void setRangeStart(long rangeStart) { this.rangeStart = rangeStart; }
+
+    public long getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(long rangeEnd) { this.rangeEnd = rangeEnd; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public BigDecimal getDepositAmount() { return depositAmount; }
+    public void setDepositAmount(BigDecimal depositAmount) { this.depositAmount = depositAmount; }
+
+    public BigDecimal getWithdrawalAmount() { return withdrawalAmount; }
+    public void setWithdrawalAmount(BigDecimal withdrawalAmount) { this.withdrawalAmount = withdrawalAmount; }
+
+    public boolean isVerified() { return verified; }
+    public void setVerified(boolean verified) { this.verified = verified; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
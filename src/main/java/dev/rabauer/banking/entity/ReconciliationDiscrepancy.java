@@ -0,0 +1,64 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A single finding of a {@link ReconciliationRun}. Account and transaction ids are plain
+ * columns so the report survives independently of the rows it points at.
+ */
+@Entity
+@Table(name = "reconciliation_discrepancy")
+public class ReconciliationDiscrepancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_discrepancy_seq")
+    @SequenceGenerator(name = "reconciliation_discrepancy_seq", sequenceName = "reconciliation_discrepancy_seq", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "run_id", nullable = false)
+    private ReconciliationRun run;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 40)
+    private DiscrepancyType type;
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "detail", nullable = false, length = 500)
+    private String detail;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public ReconciliationRun getRun() { return run; }
+    public void setRun(ReconciliationRun run) { this.run = run; }
+
+    public DiscrepancyType getType() { return type; }
+    public void setType(DiscrepancyType type) { this.type = type; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,75 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One execution of the ledger reconciliation. The id bounds are frozen when the run starts,
+ * so a resumed run verifies exactly the same ranges as the original attempt.
+ */
+@Entity
+@Table(name = "reconciliation_run")
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_run_seq")
+    @SequenceGenerator(name = "reconciliation_run_seq", sequenceName = "reconciliation_run_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ReconciliationStatus status;
+
+    @Column(name = "range_size", nullable = false)
+    private int rangeSize;
+
+    @Column(name = "max_transaction_id", nullable = false)
+    private long maxTransactionId;
+
+    @Column(name = "max_account_id", nullable = false)
+    private long maxAccountId;
+
+    @Column(name = "max_cross_shard_transfer_id", nullable = false)
+    private long maxCrossShardTransferId;
+
+    @Column(name = "discrepancy_count", nullable = false)
+    private long discrepancyCount;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public ReconciliationStatus getStatus() { return status; }
+    public void setStatus(ReconciliationStatus status) { this.status = status; }
+
+    public int getRangeSize() { return rangeSize; }
+    public void setRangeSize(int rangeSize) { this.rangeSize = rangeSize; }
+
+    public long getMaxTransactionId() { return maxTransactionId; }
+    public void setMaxTransactionId(long maxTransactionId) { this.maxTransactionId = maxTransactionId; }
+
+    public long getMaxAccountId() { return maxAccountId; }
+    public void setMaxAccountId(long maxAccountId) { this.maxAccountId = maxAccountId; }
+
+    public long getMaxCrossShardTransferId() { return maxCrossShardTransferId; }
+    public void setMaxCrossShardTransferId(long maxCrossShardTransferId) { this.maxCrossShardTransferId = maxCrossShardTransferId; }
+
+    public long getDiscrepancyCount() { return discrepancyCount; }
+    public void setDiscrepancyCount(long discrepancyCount) { this.discrepancyCount = discrepancyCount; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,11 @@
+package dev.rabauer.banking.entity;
+
+/** Which id space a reconciliation checkpoint range refers to. */
+public enum ReconciliationScope {
+    TRANSACTIONS,
+    ACCOUNTS,
+    /** cross_shard_transfer ids; the transfers written on this shard. */
+    SHARD_TRANSFERS,
+    /** transaction ids of the cross_shard_credit rows applied on this shard. */
+    SHARD_CREDITS
+}
@@ -0,0 +1,28 @@
+package dev.rabauer.banking.entity;
+
+import java.time.LocalDateTime;
+
+public enum Recurrence {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Due time of the n-th occurrence (0-based). Computed from the first one rather than the
+     * previous one, so a standing order on the 31st returns to the 31st after a short month.
+     *
+     * @return the due time, or null if there is no such occurrence
+     */
+    public LocalDateTime occurrence(LocalDateTime first, long n) {
+        if (n == 0) {
+            return first;
+        }
+        return switch (this) {
+            case ONCE    -> null;
+            case DAILY   -> first.plusDays(n);
+            case WEEKLY  -> first.plusWeeks(n);
+            case MONTHLY -> first.plusMonths(n);
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A future-dated transfer or standing order. Each occurrence is executed through
+ * the regular transfer path; the row only tracks what is due next.
+ */
+@Entity
+@Table(name = "scheduled_transfer")
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_transfer_seq")
+    @SequenceGenerator(name = "scheduled_transfer_seq", sequenceName = "scheduled_transfer_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "source_account_id", nullable = false, updatable = false)
+    private Long sourceAccountId;
+
+    @Column(name = "target_account_id", nullable = false, updatable = false)
+    private Long targetAccountId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence", nullable = false, length = 20)
+    private Recurrence recurrence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ScheduledTransferStatus status;
+
+    @Column(name = "first_due_at", nullable = false, updatable = false)
+    private LocalDateTime firstDueAt;
+
+    /** 0-based index of the occurrence at {@link #dueAt}. */
+    @Column(name = "occurrence", nullable = false)
+    private long occurrence;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Failed attempts of the current occurrence. */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "execution_count", nullable = false)
+    private long executionCount;
+
+    @Column(name = "last_executed_at")
+    private LocalDateTime lastExecutedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Moves on to the next occurrence, or completes the order if there is none.
+     */
+    public void advance() {
+        LocalDateTime next = recurrence.occurrence(firstDueAt, occurrence + 1);
+        attempts = 0;
+        if (next == null) {
+            status = ScheduledTransferStatus.COMPLETED;
+            return;
+        }
+        occurrence++;
+        dueAt = next;
+        nextAttemptAt = next;
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public Long getSourceAccountId() { return sourceAccountId; }
+    public void setSourceAccountId(Long sourceAccountId) { this.sourceAccountId = sourceAccountId; }
+
+    public Long getTargetAccountId() { return targetAccountId; }
+    public void setTargetAccountId(Long targetAccountId) { this.targetAccountId = targetAccountId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Recurrence getRecurrence() { return recurrence; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
+
+    public ScheduledTransferStatus getStatus() { return status; }
+    public void setStatus(ScheduledTransferStatus status) { this.status = status; }
+
+    public LocalDateTime getFirstDueAt() { return firstDueAt; }
+    public void setFirstDueAt(LocalDateTime firstDueAt) { this.firstDueAt = firstDueAt; }
+
+    public long getOccurrence() { return occurrence; }
+
+    public LocalDateTime getDueAt() { return dueAt; }
+    public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public long getExecutionCount() { return executionCount; }
+    public void setExecutionCount(long executionCount) { this.executionCount = executionCount; }
+
+    public LocalDateTime getLastExecutedAt() { return lastExecutedAt; }
+    public void setLastExecutedAt(LocalDateTime lastExecutedAt) { this.lastExecutedAt = lastExecutedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,56 @@
+package dev.rabauer.banking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One failed attempt to execute an occurrence of a {@link ScheduledTransfer}.
+ */
+@Entity
+@Table(name = "scheduled_transfer_failure")
+public class ScheduledTransferFailure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_transfer_failure_seq")
+    @SequenceGenerator(name = "scheduled_transfer_failure_seq", sequenceName = "scheduled_transfer_failure_seq", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "scheduled_transfer_id", nullable = false)
+    private ScheduledTransfer scheduledTransfer;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "attempt", nullable = false)
+    private int attempt;
+
+    @Column(name = "error", nullable = false, length = 500)
+    private String error;
+
+    @Column(name = "failed_at", nullable = false, updatable = false)
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.failedAt = LocalDateTime.now();
+    }
+
+    // --- Getters & Setters ---
+
+    public Long getId() { return id; }
+
+    public ScheduledTransfer getScheduledTransfer() { return scheduledTransfer; }
+    public void setScheduledTransfer(ScheduledTransfer scheduledTransfer) { this.scheduledTransfer = scheduledTransfer; }
+
+    public LocalDateTime getDueAt() { return dueAt; }
+    public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
+
+    public int getAttempt() { return attempt; }
+    public void setAttempt(int attempt) { this.attempt = attempt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getFailedAt() { return failedAt; }
+}
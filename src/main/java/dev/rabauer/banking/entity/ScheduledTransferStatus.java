@@ -0,0 +1,8 @@
+package dev.rabauer.banking.entity;
+
+public enum ScheduledTransferStatus {
+    ACTIVE,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
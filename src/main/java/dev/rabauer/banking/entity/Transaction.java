@@ -24,6 +24,13 @@ public class Transaction {
     @JoinColumn(name = "target_account_id")
     private Account targetAccount;
 
+    /**
+     * Read-only view of target_account_id, so the counterparty can be shown without
+     * initialising the targetAccount proxy.
+     */
+    @Column(name = "target_account_id", insertable = false, updatable = false)
+    private Long targetAccountId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false, length = 20)
     private TransactionType type;
@@ -57,6 +64,8 @@ public class Transaction {
     public Account getTargetAccount() { return targetAccount; }
     public void setTargetAccount(Account targetAccount) { this.targetAccount = targetAccount; }
 
+    public Long getTargetAccountId() { return targetAccountId; }
+
     public TransactionType getType() { return type; }
     public void setType(TransactionType type) { this.type = type; }
 
@@ -3,5 +3,9 @@ package dev.rabauer.banking.entity;
 public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
-    TRANSFER
+    TRANSFER,
+    /** Posted by the month-end batch; positive. */
+    INTEREST,
+    /** Posted by the month-end batch; negative. */
+    FEE
 }
@@ -8,9 +8,13 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class AccountRepository implements PanacheRepository<Account> {
@@ -18,22 +22,98 @@ public class AccountRepository implements PanacheRepository<Account> {
     @Inject
     EntityManager em;
 
+    /**
+     * Resolves an account by its natural id. Both the number → id resolution and the
+     * entity itself are served from the second-level cache once warm.
+     */
     public Optional<Account> findByAccountNumber(String accountNumber) {
+        return em.unwrap(Session.class)
+            .bySimpleNaturalId(Account.class)
+            .loadOptional(accountNumber);
+    }
+
+    /**
+     * Serialises creators of the same account number until the end of the transaction. Uses
+     * the two-key advisory lock space, apart from the single-key locks of the batch runs.
+     */
+    public void lockAccountNumber(String accountNumber) {
+        em.createNativeQuery("SELECT count(*) FROM pg_advisory_xact_lock(hashtext('account_number'), hashtext(:number))")
+            .setParameter("number", accountNumber)
+            .getSingleResult();
+    }
+
+    /**
+     * Accounts following (afterOwner, afterAccountNumber) in owner order, ties broken by the
+     * unique account number; from the start if afterOwner is null. Strings compare byte-wise
+     * (COLLATE "C"), so the order does not depend on the database's collation and the pages of
+     * all shards can be merged in Java.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Account> findPageOrderedByOwner(String afterOwner, String afterAccountNumber, int limit) {
+        String order = " ORDER BY owner_name COLLATE \"C\", account_number COLLATE \"C\" LIMIT :limit";
+        if (afterOwner == null) {
+            return em.createNativeQuery("SELECT * FROM account" + order, Account.class)
+                .setParameter("limit", limit)
+                .getResultList();
+        }
+        return em.createNativeQuery("SELECT * FROM account"
+                    + " WHERE (owner_name COLLATE \"C\", account_number COLLATE \"C\") > (:afterOwner, :afterAccountNumber)"
+                    + order, Account.class)
+            .setParameter("afterOwner", afterOwner)
+            .setParameter("afterAccountNumber", afterAccountNumber)
+            .setParameter("limit", limit)
+            .getResultList();
+    }
+
+    /** @return the highest account id, 0 if there are no accounts */
+    public long findMaxId() {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Account> cq = cb.createQuery(Account.class);
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
         Root<Account> root = cq.from(Account.class);
-        cq.select(root)
-          .where(cb.equal(root.get("accountNumber"), accountNumber));
-        List<Account> results = em.createQuery(cq).setMaxResults(1).getResultList();
-        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        cq.select(cb.max(root.<Long>get("id")));
+        Long result = em.createQuery(cq).getSingleResult();
+        return result != null ? result : 0L;
     }
 
-    public List<Account> findAllOrderedByOwner() {
+    /** Streams all account ids up to maxId in ascending order through a server-side cursor. */
+    public Stream<Long> streamIds(long maxId, int fetchSize) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Account> cq = cb.createQuery(Account.class);
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
         Root<Account> root = cq.from(Account.class);
-        cq.select(root)
-          .orderBy(cb.asc(root.get("ownerName")));
-        return em.createQuery(cq).getResultList();
+        cq.select(root.<Long>get("id"))
+          .where(cb.le(root.<Long>get("id"), maxId))
+          .orderBy(cb.asc(root.get("id")));
+        return em.createQuery(cq)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .getResultStream();
+    }
+
+    /**
+     * Takes row locks on all accounts with ids in (afterId, lastId] with one statement.
+     * Locks are acquired in ascending id order, the same order TransactionService uses,
+     * so batch jobs cannot deadlock with interactive transfers.
+     *
+     * @return the locked account ids, ascending
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> lockIdRange(long afterId, long lastId) {
+        return em.createNativeQuery(
+                "SELECT id FROM account WHERE id > :afterId AND id <= :lastId ORDER BY id FOR UPDATE", Long.class)
+            .setParameter("afterId", afterId)
+            .setParameter("lastId", lastId)
+            .getResultList();
+    }
+
+    /**
+     * Takes row locks on the given accounts with one statement, in ascending id order.
+     *
+     * @return the ids that exist and are now locked, ascending
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> lockIds(Collection<Long> ids) {
+        return em.createNativeQuery(
+                "SELECT id FROM account WHERE id IN (:ids) ORDER BY id FOR UPDATE", Long.class)
+            .setParameter("ids", ids)
+            .getResultList();
     }
 }
@@ -0,0 +1,7 @@
+package dev.rabauer.banking.repository;
+
+import java.math.BigDecimal;
+
+/** Target side of a cross-shard transfer: the credit row written for it and what it booked. */
+public record AppliedCredit(long transferId, long transactionId, long accountId, BigDecimal amount) {
+}
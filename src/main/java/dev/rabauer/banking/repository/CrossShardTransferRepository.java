@@ -0,0 +1,111 @@
+package dev.rabauer.banking.repository;
+
+import dev.rabauer.banking.entity.CrossShardTransfer;
+import dev.rabauer.banking.entity.CrossShardTransferStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@ApplicationScoped
+public class CrossShardTransferRepository implements PanacheRepository<CrossShardTransfer> {
+
+    private static final String CREDITS =
+        "SELECT c.transfer_id, c.transaction_id, t.account_id, t.amount "
+            + "FROM cross_shard_credit c JOIN transaction t ON t.id = c.transaction_id ";
+
+    @Inject
+    EntityManager em;
+
+    /** Ids of PENDING transfers created before the given time, oldest first. */
+    public List<Long> findPendingIds(LocalDateTime createdBefore, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<CrossShardTransfer> root = cq.from(CrossShardTransfer.class);
+        cq.select(root.<Long>get("id"))
+          .where(cb.equal(root.get("status"), CrossShardTransferStatus.PENDING),
+                 cb.lessThan(root.get("createdAt"), createdBefore))
+          .orderBy(cb.asc(root.get("createdAt")));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /** @return the highest transfer id, 0 if there are no transfers */
+    public long findMaxId() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<CrossShardTransfer> root = cq.from(CrossShardTransfer.class);
+        cq.select(cb.max(root.<Long>get("id")));
+        Long result = em.createQuery(cq).getSingleResult();
+        return result != null ? result : 0L;
+    }
+
+    /** Source side: transfers with ids in [fromId, toId], ascending. */
+    public List<CrossShardTransfer> findRange(long fromId, long toId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<CrossShardTransfer> cq = cb.createQuery(CrossShardTransfer.class);
+        Root<CrossShardTransfer> root = cq.from(CrossShardTransfer.class);
+        cq.select(root)
+          .where(cb.between(root.<Long>get("id"), fromId, toId))
+          .orderBy(cb.asc(root.get("id")));
+        return em.createQuery(cq).getResultList();
+    }
+
+    /** Source side: those of the given ids that exist on this shard. */
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<CrossShardTransfer> root = cq.from(CrossShardTransfer.class);
+        cq.select(root.<Long>get("id"))
+          .where(root.get("id").in(ids));
+        return em.createQuery(cq).getResultList();
+    }
+
+    /** Target side: the credits applied on this shard for the given transfers. */
+    public List<AppliedCredit> findCredits(Collection<Long> transferIds) {
+        return toCredits(em.createNativeQuery(CREDITS + "WHERE c.transfer_id IN (:ids)")
+            .setParameter("ids", transferIds)
+            .getResultList());
+    }
+
+    /** Target side: the credits whose ledger row has an id in [fromId, toId]. */
+    public List<AppliedCredit> findCreditsInRange(long fromId, long toId) {
+        return toCredits(em.createNativeQuery(CREDITS + "WHERE c.transaction_id BETWEEN :fromId AND :toId")
+            .setParameter("fromId", fromId)
+            .setParameter("toId", toId)
+            .getResultList());
+    }
+
+    /** Target side: whether the credit of the given transfer has been applied on this shard. */
+    public boolean isCreditApplied(Long transferId) {
+        return !em.createNativeQuery("SELECT 1 FROM cross_shard_credit WHERE transfer_id = :transferId")
+            .setParameter("transferId", transferId)
+            .getResultList()
+            .isEmpty();
+    }
+
+    /** Target side: records the applied credit; must run in the credit's transaction. */
+    public void recordCredit(Long transferId, Long transactionId) {
+        em.createNativeQuery(
+                "INSERT INTO cross_shard_credit (transfer_id, transaction_id, applied_at) VALUES (:transferId, :transactionId, :appliedAt)")
+            .setParameter("transferId", transferId)
+            .setParameter("transactionId", transactionId)
+            .setParameter("appliedAt", LocalDateTime.now())
+            .executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AppliedCredit> toCredits(List<?> rows) {
+        return ((List<Object[]>) rows).stream()
+            .map(row -> new AppliedCredit(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(), (BigDecimal) row[3]))
+            .toList();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.rabauer.banking.repository;
+
+import dev.rabauer.banking.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Flat projection of a ledger row for streamed history reads; no entity is materialised. */
+public record HistoryEntry(Long id, TransactionType type, BigDecimal amount, Long counterAccountId,
+                           String description, LocalDateTime createdAt) {
+}
@@ -0,0 +1,13 @@
+package dev.rabauer.banking.repository;
+
+import dev.rabauer.banking.entity.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * A ledger row written through {@link TransactionRepository#insertBatch(java.util.List)}
+ * instead of a managed {@link dev.rabauer.banking.entity.Transaction}. Amount is signed
+ * and already scaled.
+ */
+public record LedgerEntry(long accountId, TransactionType type, BigDecimal amount, String description) {
+}
@@ -0,0 +1,20 @@
+package dev.rabauer.banking.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of an account together with the ledger version it was computed from.
+ * The version is the account's highest transaction id. Every write draws its ids while it
+ * holds the account's row lock, so a row committed later always has a higher id than the
+ * rows already visible, and the version changes whenever a row is added to the ledger.
+ */
+public record LedgerSummary(BigDecimal balance, long maxId) {
+
+    public String version() {
+        return version(maxId);
+    }
+
+    static String version(long maxId) {
+        return Long.toString(maxId);
+    }
+}
@@ -0,0 +1,121 @@
+package dev.rabauer.banking.repository;
+
+import dev.rabauer.banking.entity.PostingChunk;
+import dev.rabauer.banking.entity.PostingRun;
+import dev.rabauer.banking.entity.PostingStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+public class PostingRepository implements PanacheRepository<PostingRun> {
+
+    @Inject
+    EntityManager em;
+
+    public Optional<PostingRun> findByPeriod(String period) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<PostingRun> cq = cb.createQuery(PostingRun.class);
+        Root<PostingRun> root = cq.from(PostingRun.class);
+        cq.select(root)
+          .where(cb.equal(root.get("period"), period));
+        List<PostingRun> results = em.createQuery(cq).setMaxResults(1).getResultList();
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    /**
+     * Runs that did not complete, oldest period first: FAILED by a chunk error, or RUNNING,
+     * either on a live node or left behind by a crash. Which of the two is decided by the
+     * run's lease when it is resumed.
+     */
+    public List<PostingRun> findUnfinished() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<PostingRun> cq = cb.createQuery(PostingRun.class);
+        Root<PostingRun> root = cq.from(PostingRun.class);
+        cq.select(root)
+          .where(cb.notEqual(root.get("status"), PostingStatus.COMPLETED))
+          .orderBy(cb.asc(root.get("period")));
+        return em.createQuery(cq).getResultList();
+    }
+
+    /** @return the chunks already posted for the run, in account id order */
+    public List<PostingChunk> findCompletedChunks(Long runId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<PostingChunk> cq = cb.createQuery(PostingChunk.class);
+        Root<PostingChunk> root = cq.from(PostingChunk.class);
+        cq.select(root)
+          .where(cb.equal(root.get("run").get("id"), runId))
+          .orderBy(cb.asc(root.get("afterAccountId")));
+        return em.createQuery(cq).getResultList();
+    }
+
+    public long sumPostingCount(Long runId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<PostingChunk> root = cq.from(PostingChunk.class);
+        cq.select(cb.sumAsLong(root.<Integer>get("postingCount")))
+          .where(cb.equal(root.get("run").get("id"), runId));
+        Long result = em.createQuery(cq).getSingleResult();
+        return result != null ? result : 0L;
+    }
+
+    /**
+     * Serializes starting and taking over runs across nodes until the calling transaction
+     * ends, so two nodes cannot both find a run unleased and each claim it.
+     */
+    public void lockRunStart() {
+        em.createNativeQuery("SELECT count(*) FROM pg_advisory_xact_lock(hashtext('posting_run'))")
+            .getSingleResult();
+    }
+
+    /**
+     * Takes the run's lease for {@code owner} if it is free, expired or already held by
+     * {@code owner}, valid for {@code seconds} from now by the database clock. A node renewing
+     * its lease concurrently holds the row lock; the takeover then re-checks the renewed lease
+     * and fails.
+     *
+     * @return whether {@code owner} now holds the lease
+     */
+    public boolean acquireLease(Long runId, String owner, long seconds) {
+        return em.createNativeQuery(
+                "UPDATE posting_run SET lease_owner = :owner, "
+                    + "lease_until = clock_timestamp() + make_interval(secs => :seconds) "
+                    + "WHERE id = :runId AND (lease_owner IS NULL OR lease_owner = :owner OR lease_until < clock_timestamp())")
+            .setParameter("owner", owner)
+            .setParameter("seconds", seconds)
+            .setParameter("runId", runId)
+            .executeUpdate() == 1;
+    }
+
+    /**
+     * Extends the lease if {@code owner} still holds it. Called in the transaction that commits
+     * a chunk, so a chunk posted after another node took the run over rolls back.
+     *
+     * @return false if another node has taken the run over
+     */
+    public boolean renewLease(Long runId, String owner, long seconds) {
+        return em.createNativeQuery(
+                "UPDATE posting_run SET lease_until = clock_timestamp() + make_interval(secs => :seconds) "
+                    + "WHERE id = :runId AND lease_owner = :owner")
+            .setParameter("seconds", seconds)
+            .setParameter("runId", runId)
+            .setParameter("owner", owner)
+            .executeUpdate() == 1;
+    }
+
+    public void releaseLease(Long runId, String owner) {
+        em.createNativeQuery(
+                "UPDATE posting_run SET lease_owner = NULL, lease_until = NULL "
+                    + "WHERE id = :runId AND lease_owner = :owner")
+            .setParameter("runId", runId)
+            .setParameter("owner", owner)
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,130 @@
+package dev.rabauer.banking.repository;
+
+import dev.rabauer.banking.entity.ReconciliationCheckpoint;
+import dev.rabauer.banking.entity.ReconciliationDiscrepancy;
+import dev.rabauer.banking.entity.ReconciliationRun;
+import dev.rabauer.banking.entity.ReconciliationScope;
+import dev.rabauer.banking.entity.ReconciliationStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+public class ReconciliationRepository implements PanacheRepository<ReconciliationRun> {
+
+    @Inject
+    EntityManager em;
+
+    /** The most recent run that did not complete, i.e. the one a restart should resume. */
+    public Optional<ReconciliationRun> findLatestUnfinished() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ReconciliationRun> cq = cb.createQuery(ReconciliationRun.class);
+        Root<ReconciliationRun> root = cq.from(ReconciliationRun.class);
+        cq.select(root)
+          .where(cb.notEqual(root.get("status"), ReconciliationStatus.COMPLETED))
+          .orderBy(cb.desc(root.get("id")));
+        List<ReconciliationRun> results = em.createQuery(cq).setMaxResults(1).getResultList();
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    public List<ReconciliationCheckpoint> findCheckpoints(Long runId, ReconciliationScope scope) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ReconciliationCheckpoint> cq = cb.createQuery(ReconciliationCheckpoint.class);
+        Root<ReconciliationCheckpoint> root = cq.from(ReconciliationCheckpoint.class);
+        cq.select(root)
+          .where(cb.equal(root.get("run").get("id"), runId),
+                 cb.equal(root.get("scope"), scope))
+          .orderBy(cb.asc(root.get("rangeStart")));
+        return em.createQuery(cq).getResultList();
+    }
+
+    public long countDiscrepancies(Long runId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<ReconciliationDiscrepancy> root = cq.from(ReconciliationDiscrepancy.class);
+        cq.select(cb.count(root))
+          .where(cb.equal(root.get("run").get("id"), runId));
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    /**
+     * Counts a failed attempt at verifying a range, in its own transaction so it survives the
+     * rollback of the range.
+     *
+     * @return attempts so far, including this one
+     */
+    public int recordRangeFailure(Long runId, ReconciliationScope scope, long rangeStart, String error) {
+        Number attempts = (Number) em.createNativeQuery(
+                "INSERT INTO reconciliation_range_failure (run_id, scope, range_start, attempts, last_error) "
+                    + "VALUES (:runId, :scope, :rangeStart, 1, :error) "
+                    + "ON CONFLICT (run_id, scope, range_start) "
+                    + "DO UPDATE SET attempts = reconciliation_range_failure.attempts + 1, last_error = EXCLUDED.last_error "
+                    + "RETURNING attempts")
+            .setParameter("runId", runId)
+            .setParameter("scope", scope.name())
+            .setParameter("rangeStart", rangeStart)
+            .setParameter("error", error)
+            .getSingleResult();
+        return attempts.intValue();
+    }
+
+    /**
+     * Serializes starting and taking over runs across nodes until the calling transaction
+     * ends, so two nodes cannot both find no unfinished run and each start one.
+     */
+    public void lockRunStart() {
+        em.createNativeQuery("SELECT count(*) FROM pg_advisory_xact_lock(hashtext('reconciliation_run'))")
+            .getSingleResult();
+    }
+
+    /**
+     * Takes the run's lease for {@code owner} if it is free, expired or already held by
+     * {@code owner}, valid for {@code seconds} from now. Expiry is judged by the database
+     * clock, so nodes need not agree on the time. A node renewing its lease concurrently
+     * holds the row lock; the takeover then re-checks the renewed lease and fails.
+     *
+     * @return whether {@code owner} now holds the lease
+     */
+    public boolean acquireLease(Long runId, String owner, long seconds) {
+        return em.createNativeQuery(
+                "UPDATE reconciliation_run SET lease_owner = :owner, "
+                    + "lease_until = clock_timestamp() + make_interval(secs => :seconds) "
+                    + "WHERE id = :runId AND (lease_owner IS NULL OR lease_owner = :owner OR lease_until < clock_timestamp())")
+            .setParameter("owner", owner)
+            .setParameter("seconds", seconds)
+            .setParameter("runId", runId)
+            .executeUpdate() == 1;
+    }
+
+    /**
+     * Extends the lease if {@code owner} still holds it. Called in the transaction that commits
+     * a range, so a range verified after another node took the run over rolls back.
+     *
+     * @return false if another node has taken the run over
+     */
+    public boolean renewLease(Long runId, String owner, long seconds) {
+        return em.createNativeQuery(
+                "UPDATE reconciliation_run SET lease_until = clock_timestamp() + make_interval(secs => :seconds) "
+                    + "WHERE id = :runId AND lease_owner = :owner")
+            .setParameter("seconds", seconds)
+            .setParameter("runId", runId)
+            .setParameter("owner", owner)
+            .executeUpdate() == 1;
+    }
+
+    public void releaseLease(Long runId, String owner) {
+        em.createNativeQuery(
+                "UPDATE reconciliation_run SET lease_owner = NULL, lease_until = NULL "
+                    + "WHERE id = :runId AND lease_owner = :owner")
+            .setParameter("runId", runId)
+            .setParameter("owner", owner)
+            .executeUpdate();
+    }
+}
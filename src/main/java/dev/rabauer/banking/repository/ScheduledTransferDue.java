@@ -0,0 +1,7 @@
+package dev.rabauer.banking.repository;
+
+import java.time.LocalDateTime;
+
+/** Id and next attempt time of an active scheduled transfer; all the timing wheel needs. */
+public record ScheduledTransferDue(Long id, LocalDateTime nextAttemptAt) {
+}
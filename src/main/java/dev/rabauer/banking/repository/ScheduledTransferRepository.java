@@ -0,0 +1,97 @@
+package dev.rabauer.banking.repository;
+
+import dev.rabauer.banking.entity.ScheduledTransfer;
+import dev.rabauer.banking.entity.ScheduledTransferStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+public class ScheduledTransferRepository implements PanacheRepository<ScheduledTransfer> {
+
+    @Inject
+    EntityManager em;
+
+    /**
+     * One keyset page of active items due up to {@code until}, ordered by (nextAttemptAt, id)
+     * and starting after the given position; a null {@code afterTime} starts from the beginning.
+     */
+    public List<ScheduledTransferDue> findUpcoming(LocalDateTime afterTime, Long afterId,
+                                                   LocalDateTime until, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ScheduledTransferDue> cq = cb.createQuery(ScheduledTransferDue.class);
+        Root<ScheduledTransfer> root = cq.from(ScheduledTransfer.class);
+        Path<Long> id = root.get("id");
+        Path<LocalDateTime> nextAttemptAt = root.get("nextAttemptAt");
+        Predicate due = cb.and(
+            cb.equal(root.get("status"), ScheduledTransferStatus.ACTIVE),
+            cb.lessThanOrEqualTo(nextAttemptAt, until));
+        if (afterTime != null) {
+            due = cb.and(due, cb.or(
+                cb.greaterThan(nextAttemptAt, afterTime),
+                cb.and(cb.equal(nextAttemptAt, afterTime), cb.gt(id, afterId))));
+        }
+        cq.select(cb.construct(ScheduledTransferDue.class, id, nextAttemptAt))
+          .where(due)
+          .orderBy(cb.asc(nextAttemptAt), cb.asc(id));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /** @return those of the given ids that are still active and due at {@code now} */
+    public List<Long> findDue(Collection<Long> ids, LocalDateTime now) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<ScheduledTransfer> root = cq.from(ScheduledTransfer.class);
+        Path<Long> id = root.get("id");
+        cq.select(id)
+          .where(id.in(ids),
+                 cb.equal(root.get("status"), ScheduledTransferStatus.ACTIVE),
+                 cb.lessThanOrEqualTo(root.get("nextAttemptAt"), now))
+          .orderBy(cb.asc(id));
+        return em.createQuery(cq).getResultList();
+    }
+
+    /**
+     * Locks the item if it is still active and due. Rows locked by another node are skipped
+     * ({@code FOR UPDATE SKIP LOCKED}) instead of waited for, so each item is executed by
+     * whichever node gets to it first and the others move on.
+     */
+    public Optional<ScheduledTransfer> lockIfDue(Long scheduledTransferId, LocalDateTime now) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ScheduledTransfer> cq = cb.createQuery(ScheduledTransfer.class);
+        Root<ScheduledTransfer> root = cq.from(ScheduledTransfer.class);
+        cq.select(root)
+          .where(cb.equal(root.get("id"), scheduledTransferId),
+                 cb.equal(root.get("status"), ScheduledTransferStatus.ACTIVE),
+                 cb.lessThanOrEqualTo(root.get("nextAttemptAt"), now));
+        List<ScheduledTransfer> results = em.unwrap(Session.class).createQuery(cq)
+            .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+            .getResultList();
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    /** Active items debiting the given account, next due first. */
+    public List<ScheduledTransfer> findActiveBySourceAccount(Long accountId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ScheduledTransfer> cq = cb.createQuery(ScheduledTransfer.class);
+        Root<ScheduledTransfer> root = cq.from(ScheduledTransfer.class);
+        cq.select(root)
+          .where(cb.equal(root.get("sourceAccountId"), accountId),
+                 cb.equal(root.get("status"), ScheduledTransferStatus.ACTIVE))
+          .orderBy(cb.asc(root.get("dueAt")), cb.asc(root.get("id")));
+        return em.createQuery(cq).getResultList();
+    }
+}
@@ -2,33 +2,55 @@ package dev.rabauer.banking.repository;
 
 import dev.rabauer.banking.entity.Account;
 import dev.rabauer.banking.entity.Transaction;
+import dev.rabauer.banking.entity.TransactionType;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class TransactionRepository implements PanacheRepository<Transaction> {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO transaction (account_id, type, amount, description, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_WITH_ID_SQL =
+        "INSERT INTO transaction (id, account_id, type, amount, description, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
     @Inject
     EntityManager em;
 
     /**
-     * Fetches all transactions for an account, eagerly loading targetAccount
-     * to prevent LazyInitializationException after the session closes.
+     * Fetches all transactions for an account without joining the counter account.
+     * Callers render the counterparty from {@link Transaction#getTargetAccountId()};
+     * the lazy targetAccount proxy must not be touched after the session closes.
      */
     public List<Transaction> findByAccountId(Long accountId) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Transaction> cq = cb.createQuery(Transaction.class);
         Root<Transaction> root = cq.from(Transaction.class);
-        root.fetch("targetAccount", JoinType.LEFT);
         cq.select(root)
           .where(cb.equal(root.get("account").get("id"), accountId))
           .orderBy(cb.desc(root.get("createdAt")));
@@ -62,4 +84,269 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
         BigDecimal result = em.createQuery(cq).getSingleResult();
         return result != null ? result : BigDecimal.ZERO;
     }
+
+    /**
+     * Calculates balances for several accounts with a single grouped aggregate.
+     *
+     * @return balance per account id; accounts without transactions are absent
+     */
+    public Map<Long, BigDecimal> calculateBalances(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Transaction> root = cq.from(Transaction.class);
+        Path<Long> accountId = root.get("account").get("id");
+        Expression<BigDecimal> sum = cb.sum(root.<BigDecimal>get("amount"));
+        cq.multiselect(accountId, sum)
+          .where(accountId.in(accountIds))
+          .groupBy(accountId);
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Tuple row : em.createQuery(cq).getResultList()) {
+            balances.put(row.get(0, Long.class), row.get(1, BigDecimal.class));
+        }
+        return balances;
+    }
+
+    /** @return the highest transaction id, 0 if the ledger is empty */
+    public long findMaxId() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Transaction> root = cq.from(Transaction.class);
+        cq.select(cb.max(root.<Long>get("id")));
+        Long result = em.createQuery(cq).getSingleResult();
+        return result != null ? result : 0L;
+    }
+
+    /**
+     * Streams the ledger rows with ids in [fromId, toId] in id order through a server-side
+     * cursor. Tuple elements: id, accountId, targetAccountId, type, amount.
+     * Must be consumed inside the calling transaction and closed afterwards.
+     */
+    public Stream<Tuple> streamRange(long fromId, long toId, int fetchSize) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Transaction> root = cq.from(Transaction.class);
+        Path<Long> id = root.get("id");
+        cq.multiselect(id, root.get("account").get("id"), root.get("targetAccountId"),
+                       root.get("type"), root.get("amount"))
+          .where(cb.between(id, fromId, toId))
+          .orderBy(cb.asc(id));
+        return em.createQuery(cq)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    /**
+     * Counts the TRANSFER legs with ids up to {@code maxId} for each of the given keys, in one
+     * query that joins the keys as arrays against (account_id, id).
+     *
+     * @return leg count per key; keys without legs are absent
+     */
+    public Map<TransferLegKey, Long> countTransferLegs(Collection<TransferLegKey> keys, long maxId) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            Long[] accountIds = new Long[keys.size()];
+            Long[] targetAccountIds = new Long[keys.size()];
+            BigDecimal[] amounts = new BigDecimal[keys.size()];
+            int i = 0;
+            for (TransferLegKey key : keys) {
+                accountIds[i] = key.accountId();
+                targetAccountIds[i] = key.targetAccountId();
+                amounts[i++] = key.amount();
+            }
+            Map<TransferLegKey, Long> counts = new HashMap<>();
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT t.account_id, t.target_account_id, t.amount, count(*) FROM transaction t "
+                        + "JOIN unnest(?, ?, ?) AS k(account_id, target_account_id, amount) "
+                        + "ON t.account_id = k.account_id AND t.target_account_id = k.target_account_id AND t.amount = k.amount "
+                        + "WHERE t.type = 'TRANSFER' AND t.id <= ? "
+                        + "GROUP BY t.account_id, t.target_account_id, t.amount")) {
+                ps.setArray(1, connection.createArrayOf("bigint", accountIds));
+                ps.setArray(2, connection.createArrayOf("bigint", targetAccountIds));
+                ps.setArray(3, connection.createArrayOf("numeric", amounts));
+                ps.setLong(4, maxId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(new TransferLegKey(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3)), rs.getLong(4));
+                    }
+                }
+            }
+            return counts;
+        });
+    }
+
+    /** Ids of the newest {@code limit} TRANSFER legs of a key with ids up to {@code maxId}, newest first. */
+    public List<Long> findNewestTransferLegIds(TransferLegKey key, long maxId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Transaction> root = cq.from(Transaction.class);
+        Path<Long> id = root.get("id");
+        cq.select(id)
+          .where(cb.equal(root.get("account").get("id"), key.accountId()),
+                 cb.equal(root.get("targetAccountId"), key.targetAccountId()),
+                 cb.equal(root.get("type"), TransactionType.TRANSFER),
+                 cb.equal(root.get("amount"), key.amount()),
+                 cb.le(id, maxId))
+          .orderBy(cb.desc(id));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Streams (accountId, balance) for accounts with ids in [fromAccountId, toAccountId]
+     * whose ledger sums to less than zero.
+     */
+    public Stream<Tuple> streamNegativeBalances(long fromAccountId, long toAccountId, int fetchSize) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Transaction> root = cq.from(Transaction.class);
+        Path<Long> accountId = root.get("account").get("id");
+        Expression<BigDecimal> sum = cb.sum(root.<BigDecimal>get("amount"));
+        cq.multiselect(accountId, sum)
+          .where(cb.between(accountId, fromAccountId, toAccountId))
+          .groupBy(accountId)
+          .having(cb.lessThan(sum, BigDecimal.ZERO));
+        return em.createQuery(cq)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .getResultStream();
+    }
+
+    /**
+     * Balances of all accounts with ids in (afterAccountId, lastAccountId], one grouped query.
+     *
+     * @return balance per account id; accounts without transactions are absent
+     */
+    public Map<Long, BigDecimal> calculateBalancesInRange(long afterAccountId, long lastAccountId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Transaction> root = cq.from(Transaction.class);
+        Path<Long> accountId = root.get("account").get("id");
+        Expression<BigDecimal> sum = cb.sum(root.<BigDecimal>get("amount"));
+        cq.multiselect(accountId, sum)
+          .where(cb.gt(accountId, afterAccountId), cb.le(accountId, lastAccountId))
+          .groupBy(accountId);
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Tuple row : em.createQuery(cq).getResultList()) {
+            balances.put(row.get(0, Long.class), row.get(1, BigDecimal.class));
+        }
+        return balances;
+    }
+
+    /**
+     * Inserts ledger rows with a single JDBC batch on the current transaction's connection,
+     * bypassing the persistence context. Ids come from the column default (transaction_seq).
+     */
+    public void insertBatch(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        em.unwrap(Session.class).doWork(connection -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                for (LedgerEntry entry : entries) {
+                    ps.setLong(1, entry.accountId());
+                    ps.setString(2, entry.type().name());
+                    ps.setBigDecimal(3, entry.amount());
+                    ps.setString(4, entry.description());
+                    ps.setTimestamp(5, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Like {@link #insertBatch}, but returns the rows as written. Ids are drawn from
+     * transaction_seq in one round trip up front, so the insert stays a plain (rewritable)
+     * batch without RETURNING.
+     *
+     * @return one entry per input, in input order
+     */
+    public List<HistoryEntry> insertBatchReturning(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            long[] ids = new long[entries.size()];
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT nextval('transaction_seq') FROM generate_series(1, ?)")) {
+                ps.setInt(1, ids.length);
+                try (ResultSet rs = ps.executeQuery()) {
+                    for (int i = 0; rs.next(); i++) {
+                        ids[i] = rs.getLong(1);
+                    }
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp createdAt = Timestamp.valueOf(now);
+            List<HistoryEntry> written = new ArrayList<>(entries.size());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_WITH_ID_SQL)) {
+                for (int i = 0; i < ids.length; i++) {
+                    LedgerEntry entry = entries.get(i);
+                    ps.setLong(1, ids[i]);
+                    ps.setLong(2, entry.accountId());
+                    ps.setString(3, entry.type().name());
+                    ps.setBigDecimal(4, entry.amount());
+                    ps.setString(5, entry.description());
+                    ps.setTimestamp(6, createdAt);
+                    ps.addBatch();
+                    written.add(new HistoryEntry(ids[i], entry.type(), entry.amount(), null, entry.description(), now));
+                }
+                ps.executeBatch();
+            }
+            return written;
+        });
+    }
+
+    /**
+     * Ledger version of an account without summing amounts; see {@link LedgerSummary#version()}.
+     * A single descent of idx_transaction_account_id_id, independent of the ledger's length.
+     */
+    public String ledgerVersion(Long accountId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Transaction> root = cq.from(Transaction.class);
+        cq.select(cb.max(root.<Long>get("id")))
+          .where(cb.equal(root.get("account").get("id"), accountId));
+        Long maxId = em.createQuery(cq).getSingleResult();
+        return LedgerSummary.version(maxId != null ? maxId : 0L);
+    }
+
+    /** Balance and ledger version of an account from one aggregate, i.e. one consistent snapshot. */
+    public LedgerSummary summarize(Long accountId) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Transaction> root = cq.from(Transaction.class);
+        cq.multiselect(cb.sum(root.<BigDecimal>get("amount")), cb.max(root.<Long>get("id")))
+          .where(cb.equal(root.get("account").get("id"), accountId));
+        Tuple row = em.createQuery(cq).getSingleResult();
+        BigDecimal balance = row.get(0, BigDecimal.class);
+        Long maxId = row.get(1, Long.class);
+        return new LedgerSummary(balance != null ? balance : BigDecimal.ZERO, maxId != null ? maxId : 0L);
+    }
+
+    /**
+     * Streams one page of an account's history, newest first, as flat projections.
+     * Keyset-paginated: pass the last id of the previous page as beforeId, or null for the first page.
+     */
+    public Stream<HistoryEntry> streamHistory(Long accountId, Long beforeId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<HistoryEntry> cq = cb.createQuery(HistoryEntry.class);
+        Root<Transaction> root = cq.from(Transaction.class);
+        Path<Long> id = root.get("id");
+        Predicate ofAccount = cb.equal(root.get("account").get("id"), accountId);
+        cq.select(cb.construct(HistoryEntry.class, id, root.get("type"), root.get("amount"),
+                               root.get("targetAccountId"), root.get("description"), root.get("createdAt")))
+          .where(beforeId != null ? cb.and(ofAccount, cb.lt(id, beforeId)) : ofAccount)
+          .orderBy(cb.desc(id));
+        return em.createQuery(cq)
+            .setMaxResults(limit)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, limit)
+            .getResultStream();
+    }
 }
@@ -0,0 +1,20 @@
+package dev.rabauer.banking.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * One side of a same-shard transfer: the account a TRANSFER leg is booked on, its counter
+ * account and its signed amount. Legs carry no pair id; a debit is matched by a leg of its
+ * {@link #counterpart()}.
+ */
+public record TransferLegKey(long accountId, long targetAccountId, BigDecimal amount) {
+
+    /** The key of the other leg of the same transfer: booked on the counter account, opposite sign. */
+    public TransferLegKey counterpart() {
+        return new TransferLegKey(targetAccountId, accountId, amount.negate());
+    }
+
+    public boolean isDebit() {
+        return amount.signum() < 0;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.rabauer.banking.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI event fired by {@link AccountService#createAccount(String)}.
+ * Observed after commit by {@link AccountDirectory} to extend its snapshot incrementally.
+ */
+public record AccountCreated(long id, String accountNumber, String ownerName, LocalDateTime createdAt) {
+}
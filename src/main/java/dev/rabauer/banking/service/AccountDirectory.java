@@ -0,0 +1,323 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Application-wide, read-mostly directory of account metadata (number, owner, creation date).
+ *
+ * Views keep only account ids and render through this directory instead of holding their own
+ * copies of {@link Account} entities. The data lives in an immutable {@link Snapshot} of
+ * parallel arrays keyed by primitive {@code long} id; readers never lock, writers replace the
+ * snapshot (copy-on-write). New accounts are merged in after their creating transaction
+ * commits; ids created on another node are resolved from the database on first lookup.
+ * The directory spans all shards: it is loaded from every shard and resolves unknown ids on
+ * the shard they belong to. Ids not found there are remembered for {@link #MISS_TTL}, so a
+ * client probing nonexistent ids does not cause a database query per request.
+ */
+@ApplicationScoped
+public class AccountDirectory {
+
+    public static final String SORT_ACCOUNT_NUMBER = "accountNumber";
+    public static final String SORT_OWNER_NAME     = "ownerName";
+
+    /** How long an id found on no shard is answered as missing without asking the database again. */
+    static final Duration MISS_TTL = Duration.ofSeconds(30);
+
+    /** Bound on remembered misses; the whole set is dropped when it is reached. */
+    static final int MAX_MISSES = 10_000;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    ShardRouter shardRouter;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot current;
+    /** Id → System.nanoTime() until which it counts as missing. */
+    private final Map<Long, Long> misses = new ConcurrentHashMap<>();
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    public int size() {
+        return snapshot().ids.length;
+    }
+
+    public boolean contains(long id) {
+        return lookup(id, (s, i) -> true, false);
+    }
+
+    /** @return the account number, or null if no such account exists */
+    public String accountNumber(long id) {
+        return lookup(id, (s, i) -> s.numbers[i], null);
+    }
+
+    /** @return the owner name, or null if no such account exists */
+    public String ownerName(long id) {
+        return lookup(id, (s, i) -> s.owners[i], null);
+    }
+
+    /** @return the creation timestamp, or null if no such account exists */
+    public LocalDateTime createdAt(long id) {
+        return lookup(id, (s, i) -> s.createdAt[i], null);
+    }
+
+    /** Same format as {@link Account#toString()}: {@code number (owner)}. */
+    public String label(long id) {
+        return lookup(id, (s, i) -> s.numbers[i] + " (" + s.owners[i] + ")", String.valueOf(id));
+    }
+
+    /**
+     * Returns one page of account ids.
+     *
+     * @param sortProperty {@link #SORT_ACCOUNT_NUMBER} or {@link #SORT_OWNER_NAME}; anything else sorts by owner
+     */
+    public List<Long> page(String sortProperty, boolean descending, int offset, int limit) {
+        Snapshot s = snapshot();
+        int[] order = SORT_ACCOUNT_NUMBER.equals(sortProperty) ? s.byNumber : s.byOwner;
+        int n = order.length;
+        int end = (int) Math.min((long) offset + limit, n);
+        List<Long> page = new ArrayList<>(Math.max(0, end - offset));
+        for (int k = offset; k < end; k++) {
+            int i = order[descending ? n - 1 - k : k];
+            page.add(s.ids[i]);
+        }
+        return page;
+    }
+
+    /**
+     * Ids (in owner order) whose label contains the given filter text, case-insensitively.
+     * Used by lazily loaded combo boxes.
+     */
+    public Stream<Long> search(String filter, long excludeId) {
+        Snapshot s = snapshot();
+        String needle = filter == null ? "" : filter.trim().toLowerCase(Locale.ROOT);
+        return Arrays.stream(s.byOwner)
+            .filter(i -> s.ids[i] != excludeId)
+            .filter(i -> needle.isEmpty()
+                || s.numbersLower[i].contains(needle)
+                || s.ownersLower[i].contains(needle))
+            .mapToObj(i -> s.ids[i]);
+    }
+
+    // ── Writes ────────────────────────────────────────────────────────────────
+
+    void onAccountCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) AccountCreated event) {
+        misses.remove(event.id());
+        writeLock.lock();
+        try {
+            // Not loaded yet: the initial load will read the committed row.
+            if (current != null) {
+                current = current.with(event.id(), event.accountNumber(), event.ownerName(), event.createdAt());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private Snapshot snapshot() {
+        Snapshot s = current;
+        if (s != null) {
+            return s;
+        }
+        writeLock.lock();
+        try {
+            if (current == null) {
+                List<Account> accounts = new ArrayList<>();
+                // Unordered: the snapshot sorts by id and builds its display orders itself.
+                shardRouter.scatter(shard -> accountRepository.listAll()).forEach(accounts::addAll);
+                current = Snapshot.of(accounts);
+            }
+            return current;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Binary search by id; falls back to the database for accounts created on another node. */
+    private <T> T lookup(long id, BiFunction<Snapshot, Integer, T> column, T missing) {
+        Snapshot s = snapshot();
+        int i = Arrays.binarySearch(s.ids, id);
+        if (i < 0) {
+            if (!shardRouter.isRoutable(id) || isKnownMiss(id)) {
+                return missing;
+            }
+            // Own transaction: the caller's, if any, may be bound to a different shard.
+            Account account = shardRouter.callNew(shardRouter.shardOf(id), () -> accountRepository.findById(id));
+            if (account == null) {
+                rememberMiss(id);
+                return missing;
+            }
+            writeLock.lock();
+            try {
+                s = current = current.with(account.getId(), account.getAccountNumber(),
+                    account.getOwnerName(), account.getCreatedAt());
+            } finally {
+                writeLock.unlock();
+            }
+            i = Arrays.binarySearch(s.ids, id);
+        }
+        return column.apply(s, i);
+    }
+
+    private boolean isKnownMiss(long id) {
+        Long until = misses.get(id);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        misses.remove(id, until);
+        return false;
+    }
+
+    private void rememberMiss(long id) {
+        if (misses.size() >= MAX_MISSES) {
+            misses.clear();
+        }
+        misses.put(id, System.nanoTime() + MISS_TTL.toNanos());
+    }
+
+    /**
+     * Immutable column-oriented view: {@code ids} ascending, the other arrays parallel to it,
+     * {@code byOwner}/{@code byNumber} hold indexes into those arrays in display order.
+     * The lower-case columns serve {@link #search} without converting on every keystroke.
+     */
+    private record Snapshot(long[] ids, String[] numbers, String[] owners, LocalDateTime[] createdAt,
+                            String[] numbersLower, String[] ownersLower, int[] byOwner, int[] byNumber) {
+
+        static Snapshot of(List<Account> accounts) {
+            Account[] sorted = accounts.stream()
+                .sorted(Comparator.comparingLong(Account::getId))
+                .toArray(Account[]::new);
+            int n = sorted.length;
+            long[] ids = new long[n];
+            String[] numbers = new String[n];
+            String[] owners = new String[n];
+            LocalDateTime[] createdAt = new LocalDateTime[n];
+            for (int i = 0; i < n; i++) {
+                ids[i]       = sorted[i].getId();
+                numbers[i]   = sorted[i].getAccountNumber();
+                owners[i]    = sorted[i].getOwnerName();
+                createdAt[i] = sorted[i].getCreatedAt();
+            }
+            String[] numbersLower = new String[n];
+            String[] ownersLower = new String[n];
+            for (int i = 0; i < n; i++) {
+                numbersLower[i] = numbers[i].toLowerCase(Locale.ROOT);
+                ownersLower[i]  = owners[i].toLowerCase(Locale.ROOT);
+            }
+            int[] byOwner = IntStream.range(0, n).boxed()
+                .sorted((i, j) -> compareByOwner(owners, numbers, i, j))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            int[] byNumber = IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparing(i -> numbers[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            return new Snapshot(ids, numbers, owners, createdAt, numbersLower, ownersLower, byOwner, byNumber);
+        }
+
+        /**
+         * Copy-on-write insert; returns {@code this} if the id is already present. The display
+         * orders are not re-sorted: the new row is binary-searched into them, so an insert
+         * costs one pass over each array.
+         */
+        Snapshot with(long id, String number, String owner, LocalDateTime created) {
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos >= 0) {
+                return this;
+            }
+            pos = -pos - 1;
+            int n = ids.length;
+            long[] newIds = new long[n + 1];
+            String[] newNumbers = new String[n + 1];
+            String[] newOwners = new String[n + 1];
+            LocalDateTime[] newCreated = new LocalDateTime[n + 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(numbers, 0, newNumbers, 0, pos);
+            System.arraycopy(owners, 0, newOwners, 0, pos);
+            System.arraycopy(createdAt, 0, newCreated, 0, pos);
+            newIds[pos] = id;
+            newNumbers[pos] = number;
+            newOwners[pos] = owner;
+            newCreated[pos] = created;
+            System.arraycopy(ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(numbers, pos, newNumbers, pos + 1, n - pos);
+            System.arraycopy(owners, pos, newOwners, pos + 1, n - pos);
+            System.arraycopy(createdAt, pos, newCreated, pos + 1, n - pos);
+            String[] newNumbersLower = insert(numbersLower, pos, number.toLowerCase(Locale.ROOT));
+            String[] newOwnersLower = insert(ownersLower, pos, owner.toLowerCase(Locale.ROOT));
+            int[] newByOwner = insertIntoOrder(byOwner, pos, (i, j) -> compareByOwner(newOwners, newNumbers, i, j));
+            int[] newByNumber = insertIntoOrder(byNumber, pos, (i, j) -> newNumbers[i].compareTo(newNumbers[j]));
+            return new Snapshot(newIds, newNumbers, newOwners, newCreated, newNumbersLower, newOwnersLower,
+                newByOwner, newByNumber);
+        }
+
+        private static int compareByOwner(String[] owners, String[] numbers, int i, int j) {
+            int c = String.CASE_INSENSITIVE_ORDER.compare(owners[i], owners[j]);
+            return c != 0 ? c : numbers[i].compareTo(numbers[j]);
+        }
+
+        private static String[] insert(String[] column, int pos, String value) {
+            String[] result = new String[column.length + 1];
+            System.arraycopy(column, 0, result, 0, pos);
+            result[pos] = value;
+            System.arraycopy(column, pos, result, pos + 1, column.length - pos);
+            return result;
+        }
+
+        /**
+         * Adds row {@code pos} to a display order. Existing entries at or after {@code pos}
+         * now point one row further; the new row goes after all rows that do not sort behind it.
+         */
+        private static int[] insertIntoOrder(int[] order, int pos, IndexComparator cmp) {
+            int n = order.length;
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int row = order[mid] >= pos ? order[mid] + 1 : order[mid];
+                if (cmp.compare(row, pos) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            int[] result = new int[n + 1];
+            for (int k = 0; k < n; k++) {
+                result[k < lo ? k : k + 1] = order[k] >= pos ? order[k] + 1 : order[k];
+            }
+            result[lo] = pos;
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int i, int j);
+    }
+}
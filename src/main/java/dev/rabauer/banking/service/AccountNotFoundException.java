@@ -0,0 +1,9 @@
+package dev.rabauer.banking.service;
+
+/** The referenced account does not exist on any shard. */
+public class AccountNotFoundException extends IllegalArgumentException {
+
+    public AccountNotFoundException(Long accountId) {
+        super("Account not found: " + accountId);
+    }
+}
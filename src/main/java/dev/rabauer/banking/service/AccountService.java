@@ -2,62 +2,196 @@ package dev.rabauer.banking.service;
 
 import dev.rabauer.banking.entity.Account;
 import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.LedgerSummary;
 import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Account lookups and creation, routed to the shard that owns the account (see
+ * {@link ShardRouter}). Listing accounts queries every shard and merges the results.
+ */
 @ApplicationScoped
 public class AccountService {
 
+    /**
+     * Order of the account list: owner, then account number, which is unique. Compared by code
+     * point, which is the byte order of UTF-8 and thus the order of COLLATE "C" the shards sort in.
+     */
+    private static final Comparator<Account> BY_OWNER =
+        Comparator.comparing(Account::getOwnerName, AccountService::compareCodePoints)
+            .thenComparing(Account::getAccountNumber, AccountService::compareCodePoints);
+
     @Inject
     AccountRepository accountRepository;
 
     @Inject
     TransactionRepository transactionRepository;
 
-    @Transactional
+    @Inject
+    ShardRouter shardRouter;
+
+    @Inject
+    Event<AccountCreated> accountCreated;
+
+    /**
+     * Creates the account on the shard its account number hashes to. Rows from before sharding
+     * may hold the number on shard 0 instead, and the unique constraint only covers one shard,
+     * so every creator of a number first takes a lock on it on shard 0 and keeps it until the
+     * account is committed; both checks and the insert happen under that lock.
+     */
     public Account createAccount(String ownerName) {
-        Account account = new Account();
-        account.setOwnerName(ownerName.trim());
-        account.setAccountNumber(generateAccountNumber());
-        accountRepository.persist(account);
-        return account;
+        while (true) {
+            String candidate = generateAccountNumber();
+            int shard = shardRouter.shardOfAccountNumber(candidate);
+            Account created = shardRouter.callNew(0, () -> {
+                accountRepository.lockAccountNumber(candidate);
+                if (accountRepository.findByAccountNumber(candidate).isPresent()) {
+                    return null;
+                }
+                return shard == 0 ? insertAccount(ownerName, candidate)
+                    : shardRouter.callNew(shard, () -> accountRepository.findByAccountNumber(candidate).isPresent()
+                        ? null : insertAccount(ownerName, candidate));
+            });
+            if (created != null) {
+                return created;
+            }
+        }
     }
 
-    @Transactional
+    /** @throws AccountNotFoundException if the id belongs to no shard */
     public BigDecimal calculateCurrentBalance(Long accountId) {
-        return transactionRepository.calculateBalance(accountId);
+        return shardRouter.call(shardOf(accountId),
+            () -> transactionRepository.calculateBalance(accountId));
     }
 
-    @Transactional
-    public List<Account> findAll() {
-        return accountRepository.findAllOrderedByOwner();
+    /**
+     * Balances for several accounts with one query per shard involved; accounts without
+     * transactions, and ids that belong to no shard, are omitted.
+     */
+    public Map<Long, BigDecimal> calculateCurrentBalances(Collection<Long> accountIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        List<Long> routable = accountIds.stream().filter(id -> id != null && shardRouter.isRoutable(id)).toList();
+        shardRouter.partition(routable, Long::longValue).forEach((shard, ids) ->
+            balances.putAll(shardRouter.call(shard, () -> transactionRepository.calculateBalances(ids))));
+        return balances;
+    }
+
+    /**
+     * Cheap change marker for an account's ledger, usable as an HTTP entity tag.
+     *
+     * @throws AccountNotFoundException if the id belongs to no shard
+     */
+    public String ledgerVersion(Long accountId) {
+        return shardRouter.call(shardOf(accountId),
+            () -> transactionRepository.ledgerVersion(accountId));
+    }
+
+    /**
+     * Balance plus the ledger version it belongs to, read in one query.
+     *
+     * @throws AccountNotFoundException if the id belongs to no shard
+     */
+    public LedgerSummary summarizeLedger(Long accountId) {
+        return shardRouter.call(shardOf(accountId),
+            () -> transactionRepository.summarize(accountId));
+    }
+
+    /**
+     * One page of the account list in owner order, starting after the account with the given
+     * owner and account number (the last row of the previous page), or from the start if
+     * afterOwner is null. Every shard returns its next {@code limit} accounts after that key;
+     * a k-way merge of those lists yields the page.
+     */
+    public List<Account> findPage(String afterOwner, String afterAccountNumber, int limit) {
+        return mergePage(shardRouter.scatter(shard ->
+            accountRepository.findPageOrderedByOwner(afterOwner, afterAccountNumber, limit)), limit);
+    }
+
+    /** Merges per-shard lists, each sorted {@link #BY_OWNER}, into their first {@code limit} accounts. */
+    static List<Account> mergePage(List<List<Account>> perShard, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::account, BY_OWNER));
+        for (List<Account> accounts : perShard) {
+            Iterator<Account> it = accounts.iterator();
+            if (it.hasNext()) {
+                heads.add(new Head(it.next(), it));
+            }
+        }
+        List<Account> page = new ArrayList<>(limit);
+        while (!heads.isEmpty() && page.size() < limit) {
+            Head head = heads.poll();
+            page.add(head.account());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return page;
     }
 
-    @Transactional
     public Optional<Account> findById(Long id) {
-        return Optional.ofNullable(accountRepository.findById(id));
+        if (id == null || !shardRouter.isRoutable(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(shardRouter.call(shardRouter.shardOf(id), () -> accountRepository.findById(id)));
+    }
+
+    /** Looks on the shard the number hashes to, then on shard 0 for accounts from before sharding. */
+    public Optional<Account> findByAccountNumber(String accountNumber) {
+        int shard = shardRouter.shardOfAccountNumber(accountNumber);
+        Optional<Account> account =
+            shardRouter.call(shard, () -> accountRepository.findByAccountNumber(accountNumber));
+        if (account.isPresent() || shard == 0) {
+            return account;
+        }
+        return shardRouter.call(0, () -> accountRepository.findByAccountNumber(accountNumber));
     }
 
     // --- Private helpers ---
 
+    private int shardOf(Long accountId) {
+        if (accountId == null || !shardRouter.isRoutable(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return shardRouter.shardOf(accountId);
+    }
+
+    private Account insertAccount(String ownerName, String accountNumber) {
+        Account account = new Account();
+        account.setOwnerName(ownerName.trim());
+        account.setAccountNumber(accountNumber);
+        accountRepository.persist(account);
+        accountCreated.fire(new AccountCreated(account.getId(), account.getAccountNumber(),
+            account.getOwnerName(), account.getCreatedAt()));
+        return account;
+    }
+
     private String generateAccountNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyMMdd"));
         int random = ThreadLocalRandom.current().nextInt(1000, 9999);
-        String candidate = "DE" + timestamp + random;
-        // Ensure uniqueness (retry on collision)
-        while (accountRepository.findByAccountNumber(candidate).isPresent()) {
-            random = ThreadLocalRandom.current().nextInt(1000, 9999);
-            candidate = "DE" + timestamp + random;
-        }
-        return candidate;
+        return "DE" + timestamp + random;
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        return Arrays.compare(a.codePoints().toArray(), b.codePoints().toArray());
+    }
+
+    private record Head(Account account, Iterator<Account> rest) {
     }
 }
@@ -0,0 +1,127 @@
+package dev.rabauer.banking.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one operation, adapted to observed latency (AIMD):
+ *   - a call slower than the target latency shrinks the limit multiplicatively, at most once
+ *     per window: calls already in flight when the limit was cut saw the same overload, so only
+ *     a slow call that started after the last decrease cuts again,
+ *   - a call within target while the limit was fully used grows it by roughly one per window.
+ *
+ * Callers beyond the limit wait in a bounded FIFO queue until a slot frees up or their
+ * deadline passes; a full queue or an expired deadline rejects with {@link ServerBusyException}.
+ */
+final class AdaptiveLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String operation;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final long targetLatencyNanos;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private long lastDecreaseNanos;
+
+    AdaptiveLimiter(String operation, int initialLimit, int minLimit, int maxLimit,
+                    int queueSize, long queueTimeoutNanos, long targetLatencyNanos) {
+        this(operation, initialLimit, minLimit, maxLimit, queueSize, queueTimeoutNanos, targetLatencyNanos,
+            System::nanoTime);
+    }
+
+    AdaptiveLimiter(String operation, int initialLimit, int minLimit, int maxLimit,
+                    int queueSize, long queueTimeoutNanos, long targetLatencyNanos, LongSupplier clock) {
+        this.operation = operation;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.clock = clock;
+        this.lastDecreaseNanos = clock.getAsLong();
+    }
+
+    /** Takes a slot, waiting in the queue if necessary. Must be paired with {@link #release(long)}. */
+    void acquire() {
+        lock.lock();
+        try {
+            // Only take a slot directly if nobody is queued, so waiters are not overtaken.
+            if (waiting == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= queueSize) {
+                throw new ServerBusyException("Too many concurrent " + operation + " requests");
+            }
+            waiting++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw new ServerBusyException("Timed out waiting to " + operation + " after "
+                            + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) + " ms");
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ServerBusyException("Interrupted while waiting to " + operation);
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Frees the slot and feeds the call's latency into the limit. */
+    void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            boolean saturated = inFlight >= before;
+            inFlight--;
+            if (latencyNanos > targetLatencyNanos) {
+                long now = clock.getAsLong();
+                if (now - latencyNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecreaseNanos = now;
+                }
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            slotFreed.signal();
+            if ((int) limit > before) {
+                slotFreed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight;
+    }
+
+    int waiting() {
+        return waiting;
+    }
+}
@@ -0,0 +1,28 @@
+package dev.rabauer.banking.service;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs before the guarded method starts its shard transaction (see
+ * {@link dev.rabauer.banking.sharding.ShardRouter}), so a queued caller does not hold a
+ * transaction or a pooled connection while it waits.
+ */
+@AdmissionControlled("")
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class AdmissionControlInterceptor {
+
+    @Inject
+    AdmissionController admissionController;
+
+    @AroundInvoke
+    Object admit(InvocationContext ctx) throws Exception {
+        // Resolved by the container, so a binding on the class works as well as one on the method.
+        AdmissionControlled binding = ctx.getInterceptorBinding(AdmissionControlled.class);
+        return admissionController.execute(binding.value(), ctx::proceed);
+    }
+}
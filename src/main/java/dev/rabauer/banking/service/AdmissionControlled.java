@@ -0,0 +1,24 @@
+package dev.rabauer.banking.service;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes calls through {@link AdmissionController} under the given operation name, before any
+ * transaction is started or connection is taken from the pool. Place it on methods or on a
+ * class; an annotation on the method takes precedence over the one on its class.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControlled {
+
+    /** Operation name; each operation has its own limit and wait queue. */
+    @Nonbinding
+    String value();
+}
@@ -0,0 +1,117 @@
+package dev.rabauer.banking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for ledger writes and API reads. Every operation (deposit, withdraw,
+ * transfer, read) gets its own {@link AdaptiveLimiter}; the sum of the per-operation maximum
+ * limits is kept below the connection pool size, so a write storm or a burst of API reads
+ * queues or is rejected before it can take the connections that the UI needs.
+ *
+ * Settings are read per operation with a global fallback, e.g.
+ * {@code banking.admission.transfer.max-limit} before {@code banking.admission.max-limit}.
+ * Limits, in-flight calls, queue length and rejections are published as metrics.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    private static final String PREFIX = "banking.admission.";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "banking.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private final ConcurrentMap<String, Guard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the action once admitted.
+     *
+     * @throws ServerBusyException if the operation is saturated and the caller could not be queued in time
+     */
+    public <T> T execute(String operation, Callable<T> action) throws Exception {
+        try (Permit permit = admit(operation)) {
+            return action.call();
+        }
+    }
+
+    /**
+     * Admits one call for work that outlives the calling method, such as a response body
+     * streamed after the resource method has returned. The slot is held until the permit is
+     * closed; closing it again has no effect.
+     *
+     * @throws ServerBusyException if the operation is saturated and the caller could not be queued in time
+     */
+    public Permit admit(String operation) {
+        if (!enabled) {
+            return () -> { };
+        }
+        Guard guard = guards.computeIfAbsent(operation, this::createGuard);
+        try {
+            guard.limiter().acquire();
+        } catch (ServerBusyException ex) {
+            guard.rejected().increment();
+            throw ex;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                guard.limiter().release(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /** An admitted call; closing it frees the slot and reports the call's latency. */
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    // --- Private helpers ---
+
+    private Guard createGuard(String operation) {
+        Config config = ConfigProvider.getConfig();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(operation,
+            setting(config, operation, "initial-limit", Integer.class, 4),
+            setting(config, operation, "min-limit", Integer.class, 1),
+            setting(config, operation, "max-limit", Integer.class, 5),
+            setting(config, operation, "queue-size", Integer.class, 50),
+            setting(config, operation, "queue-timeout", Duration.class, Duration.ofSeconds(2)).toNanos(),
+            setting(config, operation, "target-latency", Duration.class, Duration.ofMillis(100)).toNanos());
+
+        Gauge.builder("banking.admission.limit", limiter, AdaptiveLimiter::limit)
+            .tag("operation", operation).register(registry);
+        Gauge.builder("banking.admission.in-flight", limiter, AdaptiveLimiter::inFlight)
+            .tag("operation", operation).register(registry);
+        Gauge.builder("banking.admission.queued", limiter, AdaptiveLimiter::waiting)
+            .tag("operation", operation).register(registry);
+        Counter rejected = Counter.builder("banking.admission.rejected")
+            .tag("operation", operation).register(registry);
+        return new Guard(limiter, rejected);
+    }
+
+    private static <T> T setting(Config config, String operation, String key, Class<T> type, T defaultValue) {
+        return config.getOptionalValue(PREFIX + operation + "." + key, type)
+            .or(() -> config.getOptionalValue(PREFIX + key, type))
+            .orElse(defaultValue);
+    }
+
+    private record Guard(AdaptiveLimiter limiter, Counter rejected) {
+    }
+}
@@ -0,0 +1,13 @@
+package dev.rabauer.banking.service;
+
+/**
+ * The commit of a write failed in a way that leaves it open whether the rows were written,
+ * e.g. the connection broke during COMMIT. The write must not be retried blindly; the
+ * caller has to look at the ledger first.
+ */
+public class CommitOutcomeUnknownException extends RuntimeException {
+
+    public CommitOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package dev.rabauer.banking.service;
+
+/**
+ * CDI event fired by {@link TransactionService#transfer} when the debit of a cross-shard
+ * transfer has been written. Observed after commit by {@link CrossShardTransferService} to
+ * apply the credit on the target shard.
+ */
+public record CrossShardTransferPrepared(long transferId) {
+}
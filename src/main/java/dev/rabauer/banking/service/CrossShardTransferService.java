@@ -0,0 +1,194 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.entity.CrossShardTransfer;
+import dev.rabauer.banking.entity.CrossShardTransferStatus;
+import dev.rabauer.banking.entity.Transaction;
+import dev.rabauer.banking.entity.TransactionType;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.CrossShardTransferRepository;
+import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Second half of a transfer between accounts on different shards.
+ *
+ * {@link TransactionService#transfer} writes the debit and a PENDING {@link CrossShardTransfer}
+ * in one transaction on the source shard. Once that has committed, this service credits the
+ * target account in a transaction on the target shard and then marks the transfer COMPLETED
+ * on the source shard. The credit is recorded in {@code cross_shard_credit} together with the
+ * credit row and checked under the target account's lock, so applying it again (after a crash
+ * between the two steps, or by two nodes at once) does nothing.
+ *
+ * Transfers still PENDING after {@code recovery-delay} are driven again by {@link #recover()}.
+ * After {@code max-recovery-attempts} failed attempts a transfer is marked FAILED and no longer
+ * retried: its debit stands without a credit, which the reconciliation reports. An operator
+ * re-drives it with {@link #complete(long)} once the cause is fixed.
+ */
+@ApplicationScoped
+public class CrossShardTransferService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CrossShardTransferService.class);
+
+    @Inject
+    ShardRouter shardRouter;
+
+    @Inject
+    CrossShardTransferRepository crossShardTransferRepository;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "banking.sharding.recovery-delay", defaultValue = "1m")
+    Duration recoveryDelay;
+
+    @ConfigProperty(name = "banking.sharding.recovery-batch-size", defaultValue = "100")
+    int recoveryBatchSize;
+
+    @ConfigProperty(name = "banking.sharding.max-recovery-attempts", defaultValue = "20")
+    int maxRecoveryAttempts;
+
+    private Counter completed;
+    private Counter recovered;
+    private Counter failures;
+    private Counter givenUp;
+
+    @PostConstruct
+    void init() {
+        completed = Counter.builder("banking.cross-shard-transfers")
+            .tag("outcome", "completed").register(registry);
+        recovered = Counter.builder("banking.cross-shard-transfers")
+            .tag("outcome", "recovered").register(registry);
+        failures = Counter.builder("banking.cross-shard-transfers")
+            .tag("outcome", "failed-attempt").register(registry);
+        givenUp = Counter.builder("banking.cross-shard-transfers")
+            .tag("outcome", "given-up").register(registry);
+    }
+
+    void onPrepared(@Observes(during = TransactionPhase.AFTER_SUCCESS) CrossShardTransferPrepared event) {
+        try {
+            complete(event.transferId());
+            completed.increment();
+        } catch (RuntimeException ex) {
+            // The debit is committed; recovery picks the transfer up after recovery-delay.
+            failures.increment();
+            LOG.warn("Cross-shard transfer {} left pending for recovery", event.transferId(), ex);
+        }
+    }
+
+    /** Re-drives transfers that are still pending on any shard. */
+    @Scheduled(every = "{banking.sharding.recovery-interval}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void recover() {
+        if (shardRouter.shardCount() == 1) {
+            return;
+        }
+        LocalDateTime createdBefore = LocalDateTime.now().minus(recoveryDelay);
+        for (int shard : shardRouter.shards()) {
+            List<Long> pending = shardRouter.callNew(shard,
+                () -> crossShardTransferRepository.findPendingIds(createdBefore, recoveryBatchSize));
+            for (Long transferId : pending) {
+                try {
+                    complete(transferId);
+                    recovered.increment();
+                } catch (RuntimeException ex) {
+                    failures.increment();
+                    LOG.warn("Recovery of cross-shard transfer {} failed", transferId, ex);
+                    recordFailure(transferId, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the credit of a pending or failed transfer on the target shard, if not applied
+     * yet, and marks the transfer completed. Safe to call any number of times, also concurrently.
+     */
+    public void complete(long transferId) {
+        int sourceShard = shardRouter.shardOf(transferId);
+        CrossShardTransfer transfer =
+            shardRouter.callNew(sourceShard, () -> crossShardTransferRepository.findById(transferId));
+        if (transfer == null || transfer.getStatus() == CrossShardTransferStatus.COMPLETED) {
+            return;
+        }
+        shardRouter.runNew(shardRouter.shardOf(transfer.getTargetAccountId()), () -> applyCredit(transfer));
+        shardRouter.runNew(sourceShard, () -> {
+            CrossShardTransfer managed = crossShardTransferRepository.findById(transferId);
+            if (managed.getStatus() != CrossShardTransferStatus.COMPLETED) {
+                managed.setStatus(CrossShardTransferStatus.COMPLETED);
+                managed.setCompletedAt(LocalDateTime.now());
+            }
+        });
+    }
+
+    // --- Private helpers ---
+
+    /** Runs on the target shard. */
+    private void applyCredit(CrossShardTransfer transfer) {
+        EntityManager em = accountRepository.getEntityManager();
+        // Serialises concurrent attempts for the same transfer behind the account lock.
+        Account target = em.find(Account.class, transfer.getTargetAccountId(), LockModeType.PESSIMISTIC_WRITE);
+        if (target == null) {
+            throw new IllegalStateException("Target account " + transfer.getTargetAccountId()
+                + " of cross-shard transfer " + transfer.getId() + " not found");
+        }
+        if (crossShardTransferRepository.isCreditApplied(transfer.getId())) {
+            return;
+        }
+        Transaction credit = new Transaction();
+        credit.setAccount(target);
+        credit.setTargetAccount(em.getReference(Account.class, transfer.getSourceAccountId()));
+        credit.setType(TransactionType.TRANSFER);
+        credit.setAmount(transfer.getAmount());
+        credit.setDescription(transfer.getDescription());
+        transactionRepository.persist(credit);
+        em.flush();
+        crossShardTransferRepository.recordCredit(transfer.getId(), credit.getId());
+    }
+
+    /** Counts the failed attempt and marks the transfer FAILED once max-recovery-attempts is reached. */
+    private void recordFailure(long transferId, RuntimeException ex) {
+        String message = String.valueOf(ex.getMessage());
+        try {
+            shardRouter.runNew(shardRouter.shardOf(transferId), () -> {
+                CrossShardTransfer transfer = crossShardTransferRepository.findById(transferId, LockModeType.PESSIMISTIC_WRITE);
+                if (transfer.getStatus() != CrossShardTransferStatus.PENDING) {
+                    return;
+                }
+                transfer.setAttempts(transfer.getAttempts() + 1);
+                transfer.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+                if (transfer.getAttempts() >= maxRecoveryAttempts) {
+                    transfer.setStatus(CrossShardTransferStatus.FAILED);
+                    givenUp.increment();
+                    LOG.error("Cross-shard transfer {} failed {} times, giving up; the debit has no credit until it is re-driven",
+                        transferId, transfer.getAttempts());
+                }
+            });
+        } catch (RuntimeException recordEx) {
+            LOG.warn("Could not record failed attempt of cross-shard transfer {}", transferId, recordEx);
+        }
+    }
+}
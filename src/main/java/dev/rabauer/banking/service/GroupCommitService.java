@@ -0,0 +1,426 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Transaction;
+import dev.rabauer.banking.entity.TransactionType;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.HistoryEntry;
+import dev.rabauer.banking.repository.LedgerEntry;
+import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional group commit for deposits.
+ *
+ * When enabled, concurrent deposits are queued per shard and each shard's flusher thread
+ * applies them in groups: a group closes {@code max-delay} after its first request arrived or
+ * when it reaches {@code max-size}, whichever comes first. The whole group is written in one
+ * transaction (one statement locking its accounts, one JDBC batch for the rows, one commit),
+ * and each caller returns only after that commit. While a group commits, the next one fills
+ * up. A shard that is slow or waiting for admission holds up only its own deposits.
+ *
+ * Requests for unknown accounts fail on their own. If the group transaction fails before its
+ * commit, nothing was written and its requests are retried one by one through
+ * {@link TransactionService#deposit}, so a single bad item never fails the others. If the
+ * commit itself fails, the rows may already be in the ledger; those callers get a
+ * {@link CommitOutcomeUnknownException} instead of a retry that could book them twice.
+ *
+ * A group waits for one "deposit" admission permit. If admission control rejects it, the
+ * group is tried again; only requests that have been waiting longer than {@code busy-timeout}
+ * fail with {@link ServerBusyException}, just as a single deposit would after its queue wait.
+ * A caller waits at most {@code wait-timeout}: if its request has not been taken into a group
+ * by then, it is withdrawn and fails with {@link ServerBusyException}; if its group is already
+ * writing it, the caller gets a {@link CommitOutcomeUnknownException}.
+ * Withdrawals and transfers are not grouped: they depend on a balance check that each
+ * request has to see on its own.
+ *
+ * Disabled by default; callers go straight to {@link TransactionService#deposit} then.
+ */
+@ApplicationScoped
+public class GroupCommitService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GroupCommitService.class);
+
+    /** Pause before a rejected group asks for a permit again, in case it was rejected without queueing. */
+    private static final Duration BUSY_PAUSE = Duration.ofMillis(10);
+
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int WITHDRAWN = 2;
+
+    @Inject
+    TransactionService transactionService;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    ShardRouter shardRouter;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "banking.group-commit.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "banking.group-commit.max-delay", defaultValue = "5ms")
+    Duration maxDelay;
+
+    @ConfigProperty(name = "banking.group-commit.max-size", defaultValue = "100")
+    int maxSize;
+
+    @ConfigProperty(name = "banking.group-commit.queue-size", defaultValue = "10000")
+    int queueSize;
+
+    @ConfigProperty(name = "banking.group-commit.busy-timeout", defaultValue = "2s")
+    Duration busyTimeout;
+
+    @ConfigProperty(name = "banking.group-commit.wait-timeout", defaultValue = "5s")
+    Duration waitTimeout;
+
+    /** One per shard, indexed by shard. */
+    private final List<Flusher> flushers = new ArrayList<>();
+    private volatile boolean running;
+
+    private DistributionSummary groupSize;
+    private Timer commitTimer;
+    private Timer latency;
+    private Counter fallbacks;
+    private Counter rejected;
+    private Counter outcomeUnknown;
+
+    @PostConstruct
+    void init() {
+        groupSize = DistributionSummary.builder("banking.group-commit.group-size")
+            .publishPercentileHistogram()
+            .register(registry);
+        commitTimer = Timer.builder("banking.group-commit.commit")
+            .publishPercentileHistogram()
+            .register(registry);
+        latency = Timer.builder("banking.group-commit.latency")
+            .description("Time from enqueue until the caller's deposit is committed")
+            .publishPercentileHistogram()
+            .register(registry);
+        fallbacks = Counter.builder("banking.group-commit.fallbacks").register(registry);
+        rejected = Counter.builder("banking.group-commit.rejected").register(registry);
+        outcomeUnknown = Counter.builder("banking.group-commit.outcome-unknown").register(registry);
+        if (enabled) {
+            running = true;
+            for (int shard : shardRouter.shards()) {
+                flushers.add(new Flusher(shard));
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        flushers.forEach(f -> f.thread.interrupt());
+    }
+
+    // ── Public API ────────────────────────────────────────────────────────────
+
+    /**
+     * Deposits cash into an account, grouped with concurrent deposits if enabled.
+     * Blocks until the deposit is committed, at most for wait-timeout.
+     *
+     * @return the written ledger row
+     * @throws ServerBusyException if the group-commit queue is full, no permit was granted within busy-timeout
+     *         or the deposit was still queued after wait-timeout
+     * @throws CommitOutcomeUnknownException if the group's commit failed, or had not finished after wait-timeout,
+     *         and the deposit may or may not be written
+     */
+    public HistoryEntry deposit(Long accountId, BigDecimal amount, String description) {
+        if (!enabled) {
+            return toEntry(transactionService.deposit(accountId, amount, description));
+        }
+        PendingDeposit pending = enqueue(accountId, amount, description);
+        try {
+            return pending.result().get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw withdraw(pending);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw withdraw(pending);
+        }
+    }
+
+    /**
+     * Queues a deposit for the next group.
+     *
+     * @return a future completed after the group containing the deposit has committed
+     * @throws IllegalStateException if group commit is disabled
+     */
+    public CompletableFuture<HistoryEntry> submitDeposit(Long accountId, BigDecimal amount, String description) {
+        if (!enabled) {
+            throw new IllegalStateException("Group commit is disabled");
+        }
+        return enqueue(accountId, amount, description).result();
+    }
+
+    // ── Flusher ───────────────────────────────────────────────────────────────
+
+    private PendingDeposit enqueue(Long accountId, BigDecimal amount, String description) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        if (accountId == null || !shardRouter.isRoutable(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        PendingDeposit pending = new PendingDeposit(accountId, amount.setScale(4, RoundingMode.HALF_UP),
+            description, System.nanoTime(), new CompletableFuture<>(), new AtomicInteger(QUEUED));
+        if (!flushers.get(shardRouter.shardOf(accountId)).queue.offer(pending)) {
+            rejected.increment();
+            throw new ServerBusyException("Too many deposits waiting for group commit");
+        }
+        return pending;
+    }
+
+    /**
+     * Gives up on a deposit the caller no longer waits for. Withdrawn before its group took it,
+     * it will never be written; once taken, its group may still write it.
+     */
+    private RuntimeException withdraw(PendingDeposit p) {
+        if (p.state().compareAndSet(QUEUED, WITHDRAWN)) {
+            rejected.increment();
+            ServerBusyException busy = new ServerBusyException("Deposit was not committed within " + waitTimeout);
+            p.result().completeExceptionally(busy);
+            return busy;
+        }
+        outcomeUnknown.increment();
+        return new CommitOutcomeUnknownException(
+            "Deposit commit did not finish within " + waitTimeout + "; check the account history before retrying", null);
+    }
+
+    /** Queue and thread collecting and committing the deposits of one shard. */
+    private final class Flusher {
+
+        private final int shard;
+        private final BlockingQueue<PendingDeposit> queue = new LinkedBlockingQueue<>(queueSize);
+        private final Thread thread;
+
+        Flusher(int shard) {
+            this.shard = shard;
+            this.thread = Thread.ofPlatform().name("group-commit-flusher-" + shard).daemon().start(this::flushLoop);
+        }
+
+        private void flushLoop() {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                List<PendingDeposit> group;
+                try {
+                    group = nextGroup();
+                } catch (InterruptedException ex) {
+                    break;
+                }
+                if (!group.isEmpty()) {
+                    groupSize.record(group.size());
+                    commit(shard, group);
+                }
+            }
+            List<PendingDeposit> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.forEach(p -> p.result().completeExceptionally(
+                new ServerBusyException("Shutting down; deposit was not written")));
+        }
+
+        /** Waits for a first request, then collects until max-delay after it or max-size. */
+        private List<PendingDeposit> nextGroup() throws InterruptedException {
+            List<PendingDeposit> group = new ArrayList<>(maxSize);
+            PendingDeposit first = queue.poll(1, TimeUnit.SECONDS);
+            if (first == null) {
+                return group;
+            }
+            group.add(first);
+            long deadline = first.enqueuedAt() + maxDelay.toNanos();
+            while (group.size() < maxSize) {
+                queue.drainTo(group, maxSize - group.size());
+                long wait = deadline - System.nanoTime();
+                if (group.size() >= maxSize || wait <= 0) {
+                    break;
+                }
+                PendingDeposit next;
+                try {
+                    next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException ex) {
+                    // Shutting down: still commit what has been collected.
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (next == null) {
+                    break;
+                }
+                group.add(next);
+            }
+            return group;
+        }
+    }
+
+    private void commit(int shard, List<PendingDeposit> group) {
+        List<PendingDeposit> pending = group;
+        while (!pending.isEmpty()) {
+            List<PendingDeposit> current = pending;
+            List<PendingDeposit> accepted = new ArrayList<>(current.size());
+            boolean[] applied = {false};
+            long start = System.nanoTime();
+            try {
+                // One connection per group; counted against the deposit limit like a single deposit.
+                List<HistoryEntry> written = admissionController.execute("deposit",
+                    () -> shardRouter.callNew(shard, () -> applyGroup(current, accepted, applied)));
+                for (int i = 0; i < accepted.size(); i++) {
+                    complete(accepted.get(i), written.get(i));
+                }
+                return;
+            } catch (ServerBusyException ex) {
+                // Nothing was written; keep the requests that can still wait and try again.
+                pending = failExpired(current, ex);
+                if (!pending.isEmpty() && !pause()) {
+                    pending.forEach(p -> p.result().completeExceptionally(ex));
+                    return;
+                }
+            } catch (Exception ex) {
+                if (applied[0]) {
+                    LOG.error("Commit of a group of {} deposits failed; they may or may not be written", accepted.size(), ex);
+                    outcomeUnknown.increment();
+                    CommitOutcomeUnknownException failure = new CommitOutcomeUnknownException(
+                        "Deposit commit failed; check the account history before retrying", ex);
+                    accepted.forEach(p -> p.result().completeExceptionally(failure));
+                } else {
+                    // The group failed before its commit, so nothing was written.
+                    LOG.warn("Group commit of {} deposits failed, retrying them one by one", current.size(), ex);
+                    fallbacks.increment();
+                    current.forEach(this::depositAlone);
+                }
+                return;
+            } finally {
+                commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /** Fails the requests that have waited longer than busy-timeout and returns the others. */
+    private List<PendingDeposit> failExpired(List<PendingDeposit> group, ServerBusyException cause) {
+        long now = System.nanoTime();
+        List<PendingDeposit> remaining = new ArrayList<>(group.size());
+        for (PendingDeposit p : group) {
+            if (p.result().isDone()) {
+                // Withdrawn by its caller meanwhile.
+                continue;
+            }
+            if (now - p.enqueuedAt() >= busyTimeout.toNanos()) {
+                rejected.increment();
+                p.result().completeExceptionally(cause);
+            } else {
+                remaining.add(p);
+            }
+        }
+        return remaining;
+    }
+
+    /** @return false if the flusher was interrupted */
+    private boolean pause() {
+        try {
+            Thread.sleep(BUSY_PAUSE);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Locks the group's accounts, fails the requests for unknown accounts and batch-inserts
+     * the rest; requests their callers have withdrawn are left out. Runs inside the group
+     * transaction on the shard of all the group's accounts; sets {@code applied[0]} once
+     * everything up to the commit has succeeded.
+     */
+    private List<HistoryEntry> applyGroup(List<PendingDeposit> group, List<PendingDeposit> accepted, boolean[] applied) {
+        accepted.clear();
+        Set<Long> accountIds = new TreeSet<>();
+        group.forEach(p -> accountIds.add(p.accountId()));
+        Set<Long> existing = new HashSet<>(accountRepository.lockIds(accountIds));
+
+        List<LedgerEntry> entries = new ArrayList<>(group.size());
+        for (PendingDeposit p : group) {
+            if (!take(p)) {
+                continue;
+            }
+            if (existing.contains(p.accountId())) {
+                accepted.add(p);
+                entries.add(new LedgerEntry(p.accountId(), TransactionType.DEPOSIT, p.amount(), p.description()));
+            } else {
+                // Not part of the commit, so it can be failed right away.
+                p.result().completeExceptionally(new AccountNotFoundException(p.accountId()));
+            }
+        }
+        List<HistoryEntry> written = transactionRepository.insertBatchReturning(entries);
+        applied[0] = true;
+        return written;
+    }
+
+    private void depositAlone(PendingDeposit p) {
+        if (p.result().isDone() || !take(p)) {
+            return;
+        }
+        try {
+            complete(p, toEntry(transactionService.deposit(p.accountId(), p.amount(), p.description())));
+        } catch (RuntimeException ex) {
+            p.result().completeExceptionally(ex);
+        }
+    }
+
+    /** @return false if the caller withdrew the request; true if it is (now) being written */
+    private static boolean take(PendingDeposit p) {
+        return p.state().compareAndSet(QUEUED, TAKEN) || p.state().get() == TAKEN;
+    }
+
+    private void complete(PendingDeposit p, HistoryEntry entry) {
+        latency.record(System.nanoTime() - p.enqueuedAt(), TimeUnit.NANOSECONDS);
+        p.result().complete(entry);
+    }
+
+    private static HistoryEntry toEntry(Transaction tx) {
+        return new HistoryEntry(tx.getId(), tx.getType(), tx.getAmount(), null, tx.getDescription(), tx.getCreatedAt());
+    }
+
+    /** @param state {@link #QUEUED}, then {@link #TAKEN} by its group or {@link #WITHDRAWN} by its caller */
+    private record PendingDeposit(Long accountId, BigDecimal amount, String description, long enqueuedAt,
+                                  CompletableFuture<HistoryEntry> result, AtomicInteger state) {
+    }
+}
@@ -0,0 +1,398 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.PostingChunk;
+import dev.rabauer.banking.entity.PostingRun;
+import dev.rabauer.banking.entity.PostingStatus;
+import dev.rabauer.banking.entity.TransactionType;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.LedgerEntry;
+import dev.rabauer.banking.repository.PostingRepository;
+import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.sharding.ShardContext;
+import dev.rabauer.banking.sharding.ShardRouter;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Month-end interest and fee posting for every account.
+ *
+ * Accounts are split into keyset-ordered chunks of {@code chunk-size} ids. Each chunk is
+ * processed in its own transaction by a pool of virtual-thread workers: one statement locks
+ * the chunk's accounts, one grouped query reads their balances, the postings are written with
+ * a single JDBC batch and a {@link PostingChunk} checkpoint commits alongside them. A run left
+ * RUNNING by a crash or FAILED by a chunk error is resumed by the scheduled triggers (or by
+ * posting the same period again); chunks that already have a checkpoint are skipped, and the
+ * unique checkpoint key rejects a chunk that is posted twice concurrently.
+ *
+ * A node posts a run only while it holds the run's lease in the database, renewed by every
+ * chunk it commits. Other nodes skip a run whose lease is held. A run left behind by a crashed
+ * node is resumed once its lease has expired.
+ *
+ * Interest is credited on positive balances only. The fee never takes a balance below zero,
+ * matching the invariant {@link TransactionService#withdraw} enforces.
+ *
+ * Shards are posted one after another, each with its own posting run and checkpoints.
+ */
+@ApplicationScoped
+public class PostingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostingService.class);
+
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+
+    @Inject
+    PostingRepository postingRepository;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    ShardRouter shardRouter;
+
+    @ConfigProperty(name = "banking.posting.interest-rate", defaultValue = "0")
+    BigDecimal annualInterestRate;
+
+    @ConfigProperty(name = "banking.posting.monthly-fee", defaultValue = "0")
+    BigDecimal monthlyFee;
+
+    @ConfigProperty(name = "banking.posting.chunk-size", defaultValue = "1000")
+    int chunkSize;
+
+    @ConfigProperty(name = "banking.posting.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "banking.posting.fetch-size", defaultValue = "10000")
+    int fetchSize;
+
+    @ConfigProperty(name = "banking.posting.chunk-timeout", defaultValue = "5m")
+    Duration chunkTimeout;
+
+    /** Must exceed chunk-timeout: the lease is only renewed when a chunk commits. */
+    @ConfigProperty(name = "banking.posting.lease-timeout", defaultValue = "10m")
+    Duration leaseTimeout;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Lease owner written to posting_run; a restarted node is a new owner. */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Finishes interrupted runs, then posts the month that just ended. */
+    @Scheduled(cron = "{banking.posting.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void monthEnd() {
+        resumeUnfinished();
+        YearMonth period = YearMonth.now().minusMonths(1);
+        if (!isPosted(period)) {
+            post(period, annualInterestRate, monthlyFee);
+        }
+    }
+
+    /** Picks up interrupted runs without waiting for the next month end. */
+    @Scheduled(cron = "{banking.posting.resume-cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void resumeInterrupted() {
+        if (!running.get()) {
+            resumeUnfinished();
+        }
+    }
+
+    /**
+     * Resumes every posting run that did not complete, on all shards, oldest period first.
+     * Runs whose lease another node holds are skipped; a RUNNING run of a crashed node is
+     * resumed once its lease has expired. A period is completed on every shard with the rate
+     * and fee it was started with, including shards the interrupted call never reached.
+     *
+     * @return ids of the posting runs resumed or started, in period and shard order
+     */
+    public List<Long> resumeUnfinished() {
+        Map<YearMonth, PostingRun> unfinished = new TreeMap<>();
+        for (int shard : shardRouter.shards()) {
+            for (PostingRun run : shardRouter.callNew(shard, () -> postingRepository.findUnfinished())) {
+                unfinished.putIfAbsent(YearMonth.parse(run.getPeriod()), run);
+            }
+        }
+        List<Long> runIds = new ArrayList<>();
+        unfinished.forEach((period, run) -> {
+            LOG.info("Resuming unfinished posting of {}", period);
+            runIds.addAll(post(period, run.getInterestRate(), run.getMonthlyFee()));
+        });
+        return runIds;
+    }
+
+    /**
+     * Posts interest and fees for the given period, or resumes an unfinished posting of it.
+     * A resumed run keeps the rate and fee it was started with. Shards on which the period
+     * has already been posted completely are skipped.
+     *
+     * @return ids of the posting runs of the shards posted by this call, in shard order; shards
+     *         whose run another node is posting are skipped
+     * @throws IllegalStateException if the period has already been posted completely on every shard
+     */
+    public List<Long> post(YearMonth period, BigDecimal annualInterestRate, BigDecimal monthlyFee) {
+        if (leaseTimeout.compareTo(chunkTimeout) <= 0) {
+            throw new IllegalStateException("banking.posting.lease-timeout (" + leaseTimeout
+                + ") must exceed banking.posting.chunk-timeout (" + chunkTimeout + ")");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A posting run is already in progress");
+        }
+        try {
+            List<Long> runIds = new ArrayList<>();
+            for (int shard : shardRouter.shards()) {
+                Long runId = ShardContext.with(shard, () -> postOnCurrentShard(period, annualInterestRate, monthlyFee));
+                if (runId != null) {
+                    runIds.add(runId);
+                }
+            }
+            if (runIds.isEmpty() && isPosted(period)) {
+                throw new IllegalStateException("Period " + period + " has already been posted");
+            }
+            return runIds;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** @return id of the posting run, or null if the period is already posted or held by another node on this shard */
+    private Long postOnCurrentShard(YearMonth period, BigDecimal annualInterestRate, BigDecimal monthlyFee) {
+        PostingRun run = QuarkusTransaction.requiringNew()
+            .call(() -> startOrResume(period.toString(), annualInterestRate, monthlyFee));
+        if (run == null) {
+            return null;
+        }
+        Queue<Chunk> pending = QuarkusTransaction.requiringNew()
+            .timeout((int) chunkTimeout.toSeconds())
+            .call(() -> planChunks(run));
+        LOG.info("Posting run {} ({}, shard {}): {} chunks to post",
+            run.getId(), run.getPeriod(), ShardContext.current(), pending.size());
+
+        AtomicBoolean failed = new AtomicBoolean();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.max(1, parallelism); i++) {
+                workers.submit(ShardContext.bind(() -> drain(run, pending, failed)));
+            }
+        }
+        QuarkusTransaction.requiringNew().run(() -> finish(run.getId(), !failed.get()));
+        return run.getId();
+    }
+
+    private boolean isPosted(YearMonth period) {
+        for (int shard : shardRouter.shards()) {
+            PostingRun run = shardRouter.callNew(shard, () -> postingRepository.findByPeriod(period.toString()).orElse(null));
+            if (run == null || run.getStatus() != PostingStatus.COMPLETED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ── Run lifecycle ─────────────────────────────────────────────────────────
+
+    /**
+     * @return the run to post, or null if the period is already posted completely or another
+     *         node holds the run's lease
+     */
+    private PostingRun startOrResume(String period, BigDecimal annualInterestRate, BigDecimal monthlyFee) {
+        postingRepository.lockRunStart();
+        PostingRun run = postingRepository.findByPeriod(period).orElse(null);
+        if (run == null) {
+            run = new PostingRun();
+            run.setPeriod(period);
+            run.setStatus(PostingStatus.RUNNING);
+            run.setInterestRate(annualInterestRate);
+            run.setMonthlyFee(monthlyFee);
+            run.setChunkSize(chunkSize);
+            run.setMaxAccountId(accountRepository.findMaxId());
+            postingRepository.persist(run);
+            postingRepository.getEntityManager().flush();
+            postingRepository.acquireLease(run.getId(), nodeId, leaseTimeout.toSeconds());
+            LOG.info("Starting posting run {} for {}", run.getId(), period);
+        } else if (run.getStatus() == PostingStatus.COMPLETED) {
+            return null;
+        } else if (!postingRepository.acquireLease(run.getId(), nodeId, leaseTimeout.toSeconds())) {
+            LOG.info("Posting run {} for {} (shard {}) is held by another node, skipping",
+                run.getId(), period, ShardContext.current());
+            return null;
+        } else {
+            run.setStatus(PostingStatus.RUNNING);
+            LOG.info("Resuming posting run {} for {}", run.getId(), period);
+        }
+        return run;
+    }
+
+    /**
+     * Derives chunk boundaries from one ordered scan of account ids up to the frozen maximum:
+     * every chunkSize-th id closes a chunk. A resumed run plans only the ids no checkpoint
+     * covers, so its chunks never overlap a posted one. The maximum does not freeze the ids
+     * below it: an account whose id was drawn before the maximum was read but committed after
+     * appears later. It is posted with its chunk if that chunk is still pending, and is left
+     * out of the period otherwise; it can never be posted twice.
+     */
+    private Queue<Chunk> planChunks(PostingRun run) {
+        Iterator<PostingChunk> posted = postingRepository.findCompletedChunks(run.getId()).iterator();
+        PostingChunk covering = posted.hasNext() ? posted.next() : null;
+        Queue<Chunk> pending = new ConcurrentLinkedQueue<>();
+        long after = 0;
+        long last = 0;
+        int count = 0;
+        try (Stream<Long> ids = accountRepository.streamIds(run.getMaxAccountId(), fetchSize)) {
+            Iterator<Long> it = ids.iterator();
+            while (it.hasNext()) {
+                long id = it.next();
+                while (covering != null && covering.getLastAccountId() < id) {
+                    covering = posted.hasNext() ? posted.next() : null;
+                }
+                if (covering != null && id > covering.getAfterAccountId()) {
+                    // Already posted: close the chunk gathered so far, continue behind this one.
+                    if (count > 0) {
+                        pending.add(new Chunk(after, last));
+                        count = 0;
+                    }
+                    after = covering.getLastAccountId();
+                    continue;
+                }
+                last = id;
+                if (++count == run.getChunkSize()) {
+                    pending.add(new Chunk(after, last));
+                    after = last;
+                    count = 0;
+                }
+            }
+        }
+        if (count > 0) {
+            pending.add(new Chunk(after, last));
+        }
+        return pending;
+    }
+
+    private void finish(Long runId, boolean completed) {
+        try {
+            requireLease(runId);
+        } catch (LeaseLostException ex) {
+            LOG.warn("Posting run {} was taken over by another node, leaving it to that node", runId);
+            return;
+        }
+        postingRepository.releaseLease(runId, nodeId);
+        PostingRun run = postingRepository.findById(runId);
+        run.setPostingCount(postingRepository.sumPostingCount(runId));
+        if (completed) {
+            run.setStatus(PostingStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+        } else {
+            run.setStatus(PostingStatus.FAILED);
+        }
+        LOG.info("Posting run {} ({}) {} with {} postings",
+            runId, run.getPeriod(), run.getStatus(), run.getPostingCount());
+    }
+
+    // ── Chunk processing ──────────────────────────────────────────────────────
+
+    private void drain(PostingRun run, Queue<Chunk> pending, AtomicBoolean failed) {
+        Chunk chunk;
+        while ((chunk = pending.poll()) != null) {
+            Chunk current = chunk;
+            try {
+                QuarkusTransaction.requiringNew()
+                    .timeout((int) chunkTimeout.toSeconds())
+                    .run(() -> postChunk(run, current));
+            } catch (LeaseLostException ex) {
+                LOG.warn("Posting run {} was taken over by another node, stopping", run.getId());
+                pending.clear();
+                failed.set(true);
+                return;
+            } catch (RuntimeException ex) {
+                // No checkpoint was written; posting the period again retries this chunk.
+                LOG.error("Posting run {}: chunk ({}, {}] failed", run.getId(), current.afterId(), current.lastId(), ex);
+                failed.set(true);
+            }
+        }
+    }
+
+    private void postChunk(PostingRun run, Chunk chunk) {
+        List<Long> accountIds = accountRepository.lockIdRange(chunk.afterId(), chunk.lastId());
+        Map<Long, BigDecimal> balances = transactionRepository.calculateBalancesInRange(chunk.afterId(), chunk.lastId());
+
+        String interestText = "Interest " + run.getPeriod();
+        String feeText = "Account fee " + run.getPeriod();
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            BigDecimal balance = balances.getOrDefault(accountId, BigDecimal.ZERO);
+            BigDecimal interest = interestFor(balance, run.getInterestRate());
+            if (interest.signum() > 0) {
+                entries.add(new LedgerEntry(accountId, TransactionType.INTEREST, interest, interestText));
+            }
+            BigDecimal fee = scale(run.getMonthlyFee().min(balance.add(interest)));
+            if (fee.signum() > 0) {
+                entries.add(new LedgerEntry(accountId, TransactionType.FEE, fee.negate(), feeText));
+            }
+        }
+        transactionRepository.insertBatch(entries);
+
+        PostingChunk checkpoint = new PostingChunk();
+        checkpoint.setRun(postingRepository.getEntityManager().getReference(PostingRun.class, run.getId()));
+        checkpoint.setAfterAccountId(chunk.afterId());
+        checkpoint.setLastAccountId(chunk.lastId());
+        checkpoint.setPostingCount(entries.size());
+        postingRepository.getEntityManager().persist(checkpoint);
+        requireLease(run.getId());
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────────
+
+    /**
+     * Renews the lease in the calling transaction, which then holds the run row until it
+     * commits: a takeover either happened before, and the chunk rolls back, or waits.
+     */
+    private void requireLease(Long runId) {
+        if (!postingRepository.renewLease(runId, nodeId, leaseTimeout.toSeconds())) {
+            throw new LeaseLostException(runId);
+        }
+    }
+
+    private BigDecimal interestFor(BigDecimal balance, BigDecimal annualRate) {
+        if (balance.signum() <= 0 || annualRate.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(annualRate).divide(MONTHS_PER_YEAR, 4, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal scale(BigDecimal value) {
+        return value.setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /** Account ids in (afterId, lastId]. */
+    private record Chunk(long afterId, long lastId) {
+    }
+
+    /** Another node took the run over after this node's lease expired. */
+    private static final class LeaseLostException extends RuntimeException {
+
+        LeaseLostException(Long runId) {
+            super("Lost the lease on posting run " + runId);
+        }
+    }
+}
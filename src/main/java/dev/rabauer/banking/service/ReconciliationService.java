@@ -0,0 +1,576 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.CrossShardTransfer;
+import dev.rabauer.banking.entity.DiscrepancyType;
+import dev.rabauer.banking.entity.ReconciliationCheckpoint;
+import dev.rabauer.banking.entity.ReconciliationDiscrepancy;
+import dev.rabauer.banking.entity.ReconciliationRun;
+import dev.rabauer.banking.entity.ReconciliationScope;
+import dev.rabauer.banking.entity.ReconciliationStatus;
+import dev.rabauer.banking.entity.TransactionType;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.AppliedCredit;
+import dev.rabauer.banking.repository.CrossShardTransferRepository;
+import dev.rabauer.banking.repository.ReconciliationRepository;
+import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.repository.TransferLegKey;
+import dev.rabauer.banking.sharding.ShardContext;
+import dev.rabauer.banking.sharding.ShardRouter;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verifies the ledger invariants:
+ *   - every TRANSFER debit has its matching credit (and vice versa),
+ *   - the sum over all accounts equals deposits minus withdrawals,
+ *   - no account balance (as computed by calculateBalance) is negative.
+ *
+ * The transaction and account id spaces are split into fixed-size ranges. Each range is
+ * streamed through a database cursor and verified in its own transaction by a small pool of
+ * virtual-thread workers; findings and the range checkpoint commit together, so an
+ * interrupted run resumes with the first unverified range. A range that fails
+ * {@code max-range-attempts} times is given up and reported instead of being retried by every
+ * following run. Parallelism and a pause after every range keep the job from starving
+ * interactive traffic of connections.
+ *
+ * Several nodes may run the job. A node verifies a run only while it holds the run's lease in
+ * the database, renewed by every range it commits; a node that finds the lease held by another
+ * skips the shard, and one that lost its lease stops. A run left behind by a crashed node is
+ * resumed once its lease has expired.
+ *
+ * Each shard is reconciled on its own, one run per shard, with ranges starting at the shard's
+ * first id. Transfer legs whose counter account is on another shard cannot be paired locally;
+ * they are counted as money entering or leaving the shard, like deposits and withdrawals.
+ * The two-step protocol behind them is checked in two more range scopes instead: every
+ * cross_shard_transfer written on the shard must complete within {@code cross-shard-pending-limit}
+ * and, once COMPLETED, have a cross_shard_credit for the same account and amount on its target
+ * shard; every credit applied on the shard must point at a transfer that exists on its source shard.
+ */
+@ApplicationScoped
+public class ReconciliationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReconciliationService.class);
+
+    @Inject
+    ReconciliationRepository reconciliationRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    CrossShardTransferRepository crossShardTransferRepository;
+
+    @Inject
+    ShardRouter shardRouter;
+
+    @ConfigProperty(name = "banking.reconciliation.range-size", defaultValue = "10000")
+    int rangeSize;
+
+    @ConfigProperty(name = "banking.reconciliation.parallelism", defaultValue = "2")
+    int parallelism;
+
+    @ConfigProperty(name = "banking.reconciliation.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    @ConfigProperty(name = "banking.reconciliation.pause-between-ranges", defaultValue = "100ms")
+    Duration pauseBetweenRanges;
+
+    @ConfigProperty(name = "banking.reconciliation.range-timeout", defaultValue = "10m")
+    Duration rangeTimeout;
+
+    @ConfigProperty(name = "banking.reconciliation.max-range-attempts", defaultValue = "3")
+    int maxRangeAttempts;
+
+    @ConfigProperty(name = "banking.reconciliation.cross-shard-pending-limit", defaultValue = "1h")
+    Duration crossShardPendingLimit;
+
+    /** Must exceed range-timeout: the lease is only renewed when a range commits. */
+    @ConfigProperty(name = "banking.reconciliation.lease-timeout", defaultValue = "15m")
+    Duration leaseTimeout;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Lease owner written to reconciliation_run; a restarted node is a new owner. */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Scheduled(cron = "{banking.reconciliation.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void nightly() {
+        run();
+    }
+
+    /**
+     * Resumes the latest unfinished run, or starts a new one, on every shard in turn and
+     * blocks until all are done.
+     *
+     * @return ids of the runs in shard order, null for a shard whose run another node holds;
+     *         findings are in each shard's reconciliation_discrepancy
+     */
+    public List<Long> run() {
+        if (leaseTimeout.compareTo(rangeTimeout) <= 0) {
+            throw new IllegalStateException("banking.reconciliation.lease-timeout (" + leaseTimeout
+                + ") must exceed banking.reconciliation.range-timeout (" + rangeTimeout + ")");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation run is already in progress");
+        }
+        try {
+            List<Long> runIds = new ArrayList<>();
+            for (int shard : shardRouter.shards()) {
+                runIds.add(ShardContext.with(shard, () -> runOnCurrentShard()));
+            }
+            return runIds;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Long runOnCurrentShard() {
+        RunPlan plan = QuarkusTransaction.requiringNew().call(this::startOrResume);
+        if (plan == null) {
+            return null;
+        }
+        boolean completed = verifyRanges(plan);
+        QuarkusTransaction.requiringNew().run(() -> finish(plan.runId(), completed));
+        return plan.runId();
+    }
+
+    // ── Run lifecycle ─────────────────────────────────────────────────────────
+
+    /** @return the plan, or null if another node holds the lease on the unfinished run */
+    private RunPlan startOrResume() {
+        reconciliationRepository.lockRunStart();
+        ReconciliationRun run = reconciliationRepository.findLatestUnfinished().orElse(null);
+        if (run == null) {
+            run = new ReconciliationRun();
+            run.setStatus(ReconciliationStatus.RUNNING);
+            run.setRangeSize(rangeSize);
+            run.setMaxTransactionId(transactionRepository.findMaxId());
+            run.setMaxAccountId(accountRepository.findMaxId());
+            run.setMaxCrossShardTransferId(crossShardTransferRepository.findMaxId());
+            reconciliationRepository.persist(run);
+            em().flush();
+            reconciliationRepository.acquireLease(run.getId(), nodeId, leaseTimeout.toSeconds());
+            LOG.info("Starting reconciliation run {}", run.getId());
+        } else if (reconciliationRepository.acquireLease(run.getId(), nodeId, leaseTimeout.toSeconds())) {
+            run.setStatus(ReconciliationStatus.RUNNING);
+            LOG.info("Resuming reconciliation run {}", run.getId());
+        } else {
+            LOG.info("Reconciliation run {} (shard {}) is held by another node, skipping",
+                run.getId(), ShardContext.current());
+            return null;
+        }
+        Map<ReconciliationScope, Set<Long>> done = new EnumMap<>(ReconciliationScope.class);
+        for (ReconciliationScope scope : ReconciliationScope.values()) {
+            done.put(scope, completedRangeStarts(run.getId(), scope));
+        }
+        return new RunPlan(run.getId(), run.getRangeSize(), run.getMaxTransactionId(), run.getMaxAccountId(),
+            run.getMaxCrossShardTransferId(), done);
+    }
+
+    private void finish(Long runId, boolean completed) {
+        try {
+            requireLease(runId);
+        } catch (LeaseLostException ex) {
+            LOG.warn("Reconciliation run {} was taken over by another node, leaving it to that node", runId);
+            return;
+        }
+        reconciliationRepository.releaseLease(runId, nodeId);
+        ReconciliationRun run = reconciliationRepository.findById(runId);
+        if (completed) {
+            checkLedgerTotals(run);
+            run.setStatus(ReconciliationStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+        } else {
+            run.setStatus(ReconciliationStatus.FAILED);
+        }
+        run.setDiscrepancyCount(reconciliationRepository.countDiscrepancies(runId));
+        LOG.info("Reconciliation run {} {} with {} discrepancies",
+            runId, run.getStatus(), run.getDiscrepancyCount());
+    }
+
+    /**
+     * Sum over all accounts must equal deposits minus withdrawals: transfers net to zero.
+     * Skipped if a range was given up, since its sums are missing; that range is already reported.
+     */
+    private void checkLedgerTotals(ReconciliationRun run) {
+        List<ReconciliationCheckpoint> checkpoints =
+            reconciliationRepository.findCheckpoints(run.getId(), ReconciliationScope.TRANSACTIONS);
+        if (checkpoints.stream().anyMatch(cp -> !cp.isVerified())) {
+            LOG.warn("Reconciliation run {}: ledger totals not checked, some ranges are unverified", run.getId());
+            return;
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal deposits = BigDecimal.ZERO;
+        BigDecimal withdrawals = BigDecimal.ZERO;
+        for (ReconciliationCheckpoint cp : checkpoints) {
+            total = total.add(cp.getTotalAmount());
+            deposits = deposits.add(cp.getDepositAmount());
+            withdrawals = withdrawals.add(cp.getWithdrawalAmount());
+        }
+        BigDecimal expected = deposits.subtract(withdrawals);
+        if (total.compareTo(expected) != 0) {
+            report(run, DiscrepancyType.LEDGER_IMBALANCE, null, null,
+                "Sum of all amounts is " + total + ", deposits minus withdrawals is " + expected);
+        }
+    }
+
+    // ── Range scheduling ──────────────────────────────────────────────────────
+
+    private boolean verifyRanges(RunPlan plan) {
+        Queue<Range> pending = new ConcurrentLinkedQueue<>();
+        long firstId = ShardRouter.firstId(ShardContext.current());
+        enqueue(pending, ReconciliationScope.TRANSACTIONS, firstId, plan.maxTransactionId(), plan);
+        enqueue(pending, ReconciliationScope.ACCOUNTS, firstId, plan.maxAccountId(), plan);
+        if (shardRouter.shardCount() > 1) {
+            enqueue(pending, ReconciliationScope.SHARD_TRANSFERS, firstId, plan.maxCrossShardTransferId(), plan);
+            enqueue(pending, ReconciliationScope.SHARD_CREDITS, firstId, plan.maxTransactionId(), plan);
+        }
+        LOG.info("Reconciliation run {} (shard {}): {} ranges to verify", plan.runId(), ShardContext.current(), pending.size());
+
+        AtomicBoolean failed = new AtomicBoolean();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.max(1, parallelism); i++) {
+                workers.submit(ShardContext.bind(() -> drain(plan.runId(), pending, failed)));
+            }
+        }
+        return !failed.get();
+    }
+
+    private void enqueue(Queue<Range> pending, ReconciliationScope scope, long firstId, long maxId, RunPlan plan) {
+        int size = plan.rangeSize();
+        Set<Long> done = plan.doneRanges().get(scope);
+        for (long from = firstId; from <= maxId; from += size) {
+            if (!done.contains(from)) {
+                pending.add(new Range(scope, from, Math.min(from + size - 1, maxId)));
+            }
+        }
+    }
+
+    private void drain(Long runId, Queue<Range> pending, AtomicBoolean failed) {
+        Range range;
+        while ((range = pending.poll()) != null) {
+            Range current = range;
+            try {
+                QuarkusTransaction.requiringNew()
+                    .timeout((int) rangeTimeout.toSeconds())
+                    .run(() -> verifyRange(runId, current));
+            } catch (LeaseLostException ex) {
+                LOG.warn("Reconciliation run {} was taken over by another node, stopping", runId);
+                pending.clear();
+                failed.set(true);
+                return;
+            } catch (RuntimeException ex) {
+                LOG.error("Reconciliation run {}: {} range {}-{} failed",
+                    runId, current.scope(), current.from(), current.to(), ex);
+                if (!giveUpIfExhausted(runId, current, ex)) {
+                    // Leave the range without a checkpoint; the next run resumes it.
+                    failed.set(true);
+                }
+            }
+            try {
+                Thread.sleep(pauseBetweenRanges);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts the failed attempt and, once {@code maxRangeAttempts} is reached, checkpoints the
+     * range as unverified together with a {@link DiscrepancyType#RANGE_UNVERIFIED} finding.
+     *
+     * @return whether the range was given up
+     */
+    private boolean giveUpIfExhausted(Long runId, Range range, RuntimeException cause) {
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> {
+                requireLease(runId);
+                int attempts = reconciliationRepository.recordRangeFailure(runId, range.scope(), range.from(),
+                    truncate(String.valueOf(cause), 500));
+                if (attempts < maxRangeAttempts) {
+                    return false;
+                }
+                ReconciliationRun run = em().getReference(ReconciliationRun.class, runId);
+                ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint();
+                checkpoint.setRun(run);
+                checkpoint.setScope(range.scope());
+                checkpoint.setRangeStart(range.from());
+                checkpoint.setRangeEnd(range.to());
+                checkpoint.setVerified(false);
+                em().persist(checkpoint);
+                report(run, DiscrepancyType.RANGE_UNVERIFIED, null, null, truncate(
+                    range.scope() + " range " + range.from() + "-" + range.to() + " failed "
+                        + attempts + " times, last error: " + cause, 500));
+                LOG.warn("Reconciliation run {}: giving up on {} range {}-{} after {} attempts",
+                    runId, range.scope(), range.from(), range.to(), attempts);
+                return true;
+            });
+        } catch (LeaseLostException ex) {
+            return false;
+        } catch (RuntimeException ex) {
+            LOG.error("Reconciliation run {}: could not record failure of {} range {}-{}",
+                runId, range.scope(), range.from(), range.to(), ex);
+            return false;
+        }
+    }
+
+    // ── Range verification ────────────────────────────────────────────────────
+
+    private void verifyRange(Long runId, Range range) {
+        ReconciliationRun run = em().getReference(ReconciliationRun.class, runId);
+        ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint();
+        checkpoint.setRun(run);
+        checkpoint.setScope(range.scope());
+        checkpoint.setRangeStart(range.from());
+        checkpoint.setRangeEnd(range.to());
+        switch (range.scope()) {
+            case TRANSACTIONS -> verifyTransactions(run, range, checkpoint);
+            case ACCOUNTS        -> verifyAccounts(run, range);
+            case SHARD_TRANSFERS -> verifyShardTransfers(run, range);
+            case SHARD_CREDITS   -> verifyShardCredits(run, range);
+        }
+        em().persist(checkpoint);
+        requireLease(runId);
+    }
+
+    /** Accumulates the range sums and collects same-shard transfer legs to be matched. */
+    private void verifyTransactions(ReconciliationRun run, Range range, ReconciliationCheckpoint checkpoint) {
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal deposits = BigDecimal.ZERO;
+        BigDecimal withdrawals = BigDecimal.ZERO;
+        Map<TransferLegKey, List<Long>> transferLegs = new HashMap<>();
+
+        try (Stream<Tuple> rows = transactionRepository.streamRange(range.from(), range.to(), fetchSize)) {
+            Iterator<Tuple> it = rows.iterator();
+            while (it.hasNext()) {
+                Tuple row = it.next();
+                Long id = row.get(0, Long.class);
+                Long accountId = row.get(1, Long.class);
+                Long targetAccountId = row.get(2, Long.class);
+                TransactionType type = row.get(3, TransactionType.class);
+                BigDecimal amount = row.get(4, BigDecimal.class);
+                total = total.add(amount);
+
+                if (type != TransactionType.TRANSFER
+                        || (targetAccountId != null && !ShardRouter.sameShard(accountId, targetAccountId))) {
+                    if (amount.signum() >= 0) {
+                        deposits = deposits.add(amount);
+                    } else {
+                        withdrawals = withdrawals.add(amount.negate());
+                    }
+                } else if (targetAccountId == null) {
+                    report(run, amount.signum() < 0 ? DiscrepancyType.UNMATCHED_TRANSFER_DEBIT : DiscrepancyType.UNMATCHED_TRANSFER_CREDIT,
+                        accountId, id, "Transfer leg has no counter account");
+                } else {
+                    transferLegs.computeIfAbsent(new TransferLegKey(accountId, targetAccountId, amount), k -> new ArrayList<>())
+                        .add(id);
+                }
+            }
+        }
+
+        reportUnmatchedLegs(run, transferLegs);
+
+        checkpoint.setTotalAmount(total);
+        checkpoint.setDepositAmount(deposits);
+        checkpoint.setWithdrawalAmount(withdrawals);
+    }
+
+    /**
+     * Legs have no pair id, so they are matched by counting over the whole ledger up to the
+     * run's frozen max id: in id order, the k-th leg of a key pairs with the k-th leg of its
+     * counterpart key. A key with n legs more than its counterpart thus has exactly its n newest
+     * legs unmatched, each reported by the range that holds it, wherever the ranges split the
+     * pairs. The keys of a range are counted in one query; only an unbalanced key costs another.
+     */
+    private void reportUnmatchedLegs(ReconciliationRun run, Map<TransferLegKey, List<Long>> legsInRange) {
+        Set<TransferLegKey> keys = new HashSet<>(legsInRange.keySet());
+        legsInRange.keySet().forEach(key -> keys.add(key.counterpart()));
+        Map<TransferLegKey, Long> counts = transactionRepository.countTransferLegs(keys, run.getMaxTransactionId());
+        legsInRange.forEach((key, ids) -> {
+            long legs = counts.getOrDefault(key, 0L);
+            long counterparts = counts.getOrDefault(key.counterpart(), 0L);
+            if (legs <= counterparts) {
+                return;
+            }
+            Set<Long> unmatched = new HashSet<>(
+                transactionRepository.findNewestTransferLegIds(key, run.getMaxTransactionId(), (int) (legs - counterparts)));
+            for (Long id : ids) {
+                if (unmatched.contains(id)) {
+                    report(run, key.isDebit() ? DiscrepancyType.UNMATCHED_TRANSFER_DEBIT : DiscrepancyType.UNMATCHED_TRANSFER_CREDIT,
+                        key.accountId(), id, "No matching transfer leg on account " + key.targetAccountId() + " for "
+                            + key.amount() + " (" + legs + " legs on this side, " + counterparts + " counterparts)");
+                }
+            }
+        });
+    }
+
+    private void verifyAccounts(ReconciliationRun run, Range range) {
+        try (Stream<Tuple> rows = transactionRepository.streamNegativeBalances(range.from(), range.to(), fetchSize)) {
+            rows.forEach(row -> report(run, DiscrepancyType.NEGATIVE_BALANCE, row.get(0, Long.class), null,
+                "Balance is " + row.get(1, BigDecimal.class)));
+        }
+    }
+
+    /**
+     * Source side of the cross-shard protocol: a transfer must not stay PENDING past the limit
+     * or be given up, and a COMPLETED one needs its credit, for the same account and amount, on
+     * the target shard. Credits are looked up with one query per target shard.
+     */
+    private void verifyShardTransfers(ReconciliationRun run, Range range) {
+        LocalDateTime stuckBefore = LocalDateTime.now().minus(crossShardPendingLimit);
+        Map<Integer, Map<Long, CrossShardTransfer>> completedByShard = new TreeMap<>();
+        for (CrossShardTransfer transfer : crossShardTransferRepository.findRange(range.from(), range.to())) {
+            switch (transfer.getStatus()) {
+                case PENDING -> {
+                    if (transfer.getCreatedAt().isBefore(stuckBefore)) {
+                        report(run, DiscrepancyType.CROSS_SHARD_TRANSFER_STUCK, transfer.getSourceAccountId(), null,
+                            describe(transfer, "pending since " + transfer.getCreatedAt()));
+                    }
+                }
+                case FAILED -> report(run, DiscrepancyType.CROSS_SHARD_TRANSFER_FAILED, transfer.getSourceAccountId(), null,
+                    describe(transfer, "given up"));
+                case COMPLETED -> {
+                    if (shardRouter.isRoutable(transfer.getTargetAccountId())) {
+                        completedByShard.computeIfAbsent(shardRouter.shardOf(transfer.getTargetAccountId()), s -> new HashMap<>())
+                            .put(transfer.getId(), transfer);
+                    } else {
+                        report(run, DiscrepancyType.CROSS_SHARD_CREDIT_MISSING, transfer.getSourceAccountId(), null,
+                            describe(transfer, "completed, but its target is on no configured shard"));
+                    }
+                }
+            }
+        }
+        completedByShard.forEach((shard, transfers) -> {
+            Map<Long, AppliedCredit> credits = new HashMap<>();
+            shardRouter.callNew(shard, () -> crossShardTransferRepository.findCredits(transfers.keySet()))
+                .forEach(credit -> credits.put(credit.transferId(), credit));
+            for (CrossShardTransfer transfer : transfers.values()) {
+                AppliedCredit credit = credits.get(transfer.getId());
+                if (credit == null) {
+                    report(run, DiscrepancyType.CROSS_SHARD_CREDIT_MISSING, transfer.getSourceAccountId(), null,
+                        describe(transfer, "completed without a credit on shard " + shard));
+                } else if (credit.accountId() != transfer.getTargetAccountId()
+                        || credit.amount().compareTo(transfer.getAmount()) != 0) {
+                    report(run, DiscrepancyType.CROSS_SHARD_CREDIT_MISMATCH, transfer.getSourceAccountId(), null,
+                        describe(transfer, "credited as " + credit.amount() + " to account " + credit.accountId()
+                            + " by transaction " + credit.transactionId() + " on shard " + shard));
+                }
+            }
+        });
+    }
+
+    /** Target side of the cross-shard protocol: every credit applied here needs its transfer on the source shard. */
+    private void verifyShardCredits(ReconciliationRun run, Range range) {
+        Map<Integer, Map<Long, AppliedCredit>> bySourceShard = new TreeMap<>();
+        for (AppliedCredit credit : crossShardTransferRepository.findCreditsInRange(range.from(), range.to())) {
+            if (shardRouter.isRoutable(credit.transferId())) {
+                bySourceShard.computeIfAbsent(shardRouter.shardOf(credit.transferId()), s -> new HashMap<>())
+                    .put(credit.transferId(), credit);
+            } else {
+                report(run, DiscrepancyType.CROSS_SHARD_CREDIT_ORPHANED, credit.accountId(), credit.transactionId(),
+                    "Credit for transfer " + credit.transferId() + ", which belongs to no configured shard");
+            }
+        }
+        bySourceShard.forEach((shard, credits) -> {
+            Set<Long> existing = new HashSet<>(
+                shardRouter.callNew(shard, () -> crossShardTransferRepository.findExistingIds(credits.keySet())));
+            for (AppliedCredit credit : credits.values()) {
+                if (!existing.contains(credit.transferId())) {
+                    report(run, DiscrepancyType.CROSS_SHARD_CREDIT_ORPHANED, credit.accountId(), credit.transactionId(),
+                        "Credit for transfer " + credit.transferId() + ", which does not exist on shard " + shard);
+                }
+            }
+        });
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────────
+
+    /**
+     * Renews the lease in the calling transaction, which then holds the run row until it
+     * commits: a takeover either happened before, and the range rolls back, or waits.
+     */
+    private void requireLease(Long runId) {
+        if (!reconciliationRepository.renewLease(runId, nodeId, leaseTimeout.toSeconds())) {
+            throw new LeaseLostException(runId);
+        }
+    }
+
+    private static String describe(CrossShardTransfer transfer, String state) {
+        String text = "Cross-shard transfer " + transfer.getId() + " of " + transfer.getAmount() + " to account "
+            + transfer.getTargetAccountId() + " " + state + "; " + transfer.getAttempts() + " failed attempts";
+        return truncate(transfer.getLastError() != null ? text + ", last error: " + transfer.getLastError() : text, 500);
+    }
+
+    private void report(ReconciliationRun run, DiscrepancyType type, Long accountId, Long transactionId, String detail) {
+        ReconciliationDiscrepancy discrepancy = new ReconciliationDiscrepancy();
+        discrepancy.setRun(run);
+        discrepancy.setType(type);
+        discrepancy.setAccountId(accountId);
+        discrepancy.setTransactionId(transactionId);
+        discrepancy.setDetail(detail);
+        em().persist(discrepancy);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private Set<Long> completedRangeStarts(Long runId, ReconciliationScope scope) {
+        return reconciliationRepository.findCheckpoints(runId, scope).stream()
+            .map(ReconciliationCheckpoint::getRangeStart)
+            .collect(Collectors.toSet());
+    }
+
+    private EntityManager em() {
+        return reconciliationRepository.getEntityManager();
+    }
+
+    private record RunPlan(Long runId, int rangeSize, long maxTransactionId, long maxAccountId,
+                           long maxCrossShardTransferId, Map<ReconciliationScope, Set<Long>> doneRanges) {
+    }
+
+    /** Inclusive id range. */
+    private record Range(ReconciliationScope scope, long from, long to) {
+    }
+
+    /** Another node took the run over after this node's lease expired. */
+    private static final class LeaseLostException extends RuntimeException {
+
+        LeaseLostException(Long runId) {
+            super("Lost the lease on reconciliation run " + runId);
+        }
+    }
+}
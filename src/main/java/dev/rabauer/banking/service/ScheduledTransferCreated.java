@@ -0,0 +1,10 @@
+package dev.rabauer.banking.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI event fired by {@link ScheduledTransferService#schedule}. Observed after commit to put
+ * the new item on the local timing wheel without waiting for the next load.
+ */
+public record ScheduledTransferCreated(long id, LocalDateTime nextAttemptAt) {
+}
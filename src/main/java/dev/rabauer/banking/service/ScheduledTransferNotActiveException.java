@@ -0,0 +1,11 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.ScheduledTransferStatus;
+
+/** The scheduled transfer has already completed, failed or been cancelled. */
+public class ScheduledTransferNotActiveException extends IllegalStateException {
+
+    public ScheduledTransferNotActiveException(Long scheduledTransferId, ScheduledTransferStatus status) {
+        super("Scheduled transfer " + scheduledTransferId + " is " + status);
+    }
+}
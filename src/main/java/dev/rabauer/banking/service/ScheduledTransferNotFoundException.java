@@ -0,0 +1,9 @@
+package dev.rabauer.banking.service;
+
+/** The referenced scheduled transfer does not exist. */
+public class ScheduledTransferNotFoundException extends IllegalArgumentException {
+
+    public ScheduledTransferNotFoundException(Long scheduledTransferId) {
+        super("Scheduled transfer not found: " + scheduledTransferId);
+    }
+}
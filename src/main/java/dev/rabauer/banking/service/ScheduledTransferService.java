@@ -0,0 +1,533 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Recurrence;
+import dev.rabauer.banking.entity.ScheduledTransfer;
+import dev.rabauer.banking.entity.ScheduledTransferFailure;
+import dev.rabauer.banking.entity.ScheduledTransferStatus;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.ScheduledTransferDue;
+import dev.rabauer.banking.repository.ScheduledTransferRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Future-dated transfers and standing orders.
+ *
+ * The table is the source of truth; in memory, each node keeps only the ids that fall due
+ * within {@code look-ahead} on a {@link TimingWheel}. The loader pages through upcoming items
+ * by (nextAttemptAt, id) and periodically starts over from the beginning, which also picks up
+ * items created or rescheduled on other nodes. Every second the wheel is advanced; due ids are
+ * handed to a dispatcher that re-checks them per batch with one query and executes the rest
+ * on virtual-thread workers through {@link TransactionService#transferAdmitted}.
+ *
+ * A worker takes the "transfer" admission permit before it opens the execution transaction,
+ * so waiting in the admission queue never holds a row lock or a pooled connection.
+ *
+ * Each occurrence runs in its own transaction that first locks the row with
+ * {@code FOR UPDATE SKIP LOCKED} and re-checks that it is due. The transfer and the move to
+ * the next occurrence commit together, so when several nodes load the same item, exactly one
+ * of them executes each occurrence. A failed attempt is recorded as a
+ * {@link ScheduledTransferFailure} and retried with exponential backoff; after
+ * {@code max-attempts} a one-off transfer is marked FAILED and a standing order skips to its
+ * next occurrence. Rejections by admission control are retried shortly without counting as
+ * an attempt.
+ *
+ * An item lives on the shard of its source account, so the execution transaction can join the
+ * debit. The loader keeps one cursor per shard and due ids are re-checked and executed on the
+ * shard their id belongs to.
+ */
+@ApplicationScoped
+public class ScheduledTransferService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduledTransferService.class);
+
+    /** Wheel geometry: 64 one-second slots, 64 ~1-minute slots, 64 ~68-minute slots (~72 h). */
+    private static final long TICK_MILLIS = 1000;
+    private static final int SLOTS_PER_LEVEL = 64;
+    private static final int LEVELS = 3;
+
+    @Inject
+    ScheduledTransferRepository repository;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionService transactionService;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    ShardRouter shardRouter;
+
+    @Inject
+    Event<ScheduledTransferCreated> createdEvent;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.look-ahead", defaultValue = "10m")
+    Duration lookAhead;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.rescan-interval", defaultValue = "5m")
+    Duration rescanInterval;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.load-page-size", defaultValue = "5000")
+    int loadPageSize;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.max-attempts", defaultValue = "3")
+    int maxAttempts;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.retry-delay", defaultValue = "5m")
+    Duration retryDelay;
+
+    @ConfigProperty(name = "banking.scheduled-transfers.busy-delay", defaultValue = "2s")
+    Duration busyDelay;
+
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private TimingWheel wheel;
+
+    /** Ids currently on the wheel, waiting for dispatch or executing. */
+    private final Set<Long> tracked = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    // Loader position; only touched by loadUpcoming, which never runs concurrently.
+    private LocalDateTime passStartedAt;
+    private final Map<Integer, LoadCursor> cursors = new HashMap<>();
+
+    private Counter executed;
+    private Counter failed;
+    private Counter busy;
+    private Counter skipped;
+    private Timer executionTimer;
+
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel(TICK_MILLIS, SLOTS_PER_LEVEL, LEVELS, System.currentTimeMillis());
+        // The loader moves its cursor past every item it reads, so each must fit on the wheel.
+        Duration span = Duration.ofMillis(wheel.guaranteedSpanMillis());
+        if (lookAhead.compareTo(span) > 0) {
+            throw new IllegalStateException("banking.scheduled-transfers.look-ahead (" + lookAhead
+                + ") must not exceed the timing wheel's horizon (" + span + ")");
+        }
+        executed = outcomeCounter("executed");
+        failed = outcomeCounter("failed");
+        busy = outcomeCounter("busy");
+        skipped = outcomeCounter("skipped");
+        executionTimer = Timer.builder("banking.scheduled-transfers.execution").register(registry);
+        Gauge.builder("banking.scheduled-transfers.tracked", tracked, Set::size).register(registry);
+        Gauge.builder("banking.scheduled-transfers.wheel", this, ScheduledTransferService::wheelSize).register(registry);
+    }
+
+    // ── Public API ────────────────────────────────────────────────────────────
+
+    /**
+     * Schedules a transfer for {@code firstDueAt}, repeated according to the recurrence.
+     * The balance is checked when each occurrence is executed, not now.
+     */
+    public ScheduledTransfer schedule(Long sourceAccountId, Long targetAccountId, BigDecimal amount,
+                                      String description, LocalDateTime firstDueAt, Recurrence recurrence) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (sourceAccountId == null || targetAccountId == null) {
+            throw new IllegalArgumentException("Source and target accounts are required");
+        }
+        if (sourceAccountId.equals(targetAccountId)) {
+            throw new IllegalArgumentException("Source and target accounts must differ");
+        }
+        if (firstDueAt == null || recurrence == null) {
+            throw new IllegalArgumentException("First execution time and recurrence are required");
+        }
+        for (Long accountId : List.of(sourceAccountId, targetAccountId)) {
+            if (!shardRouter.isRoutable(accountId)
+                || shardRouter.callNew(shardRouter.shardOf(accountId), () -> accountRepository.findById(accountId)) == null) {
+                throw new AccountNotFoundException(accountId);
+            }
+        }
+        return shardRouter.call(shardRouter.shardOf(sourceAccountId), () -> create(sourceAccountId, targetAccountId,
+            amount, description, firstDueAt, recurrence));
+    }
+
+    private ScheduledTransfer create(Long sourceAccountId, Long targetAccountId, BigDecimal amount,
+                                     String description, LocalDateTime firstDueAt, Recurrence recurrence) {
+        ScheduledTransfer st = new ScheduledTransfer();
+        st.setSourceAccountId(sourceAccountId);
+        st.setTargetAccountId(targetAccountId);
+        st.setAmount(amount.setScale(4, RoundingMode.HALF_UP));
+        st.setDescription(description);
+        st.setRecurrence(recurrence);
+        st.setStatus(ScheduledTransferStatus.ACTIVE);
+        st.setFirstDueAt(firstDueAt);
+        st.setDueAt(firstDueAt);
+        st.setNextAttemptAt(firstDueAt);
+        repository.persist(st);
+        createdEvent.fire(new ScheduledTransferCreated(st.getId(), firstDueAt));
+        return st;
+    }
+
+    /**
+     * Cancels an active item. An occurrence that is executing right now still completes.
+     *
+     * @throws ScheduledTransferNotFoundException if there is no such item
+     * @throws ScheduledTransferNotActiveException if the item is no longer active
+     */
+    public ScheduledTransfer cancel(Long scheduledTransferId) {
+        if (scheduledTransferId == null || !shardRouter.isRoutable(scheduledTransferId)) {
+            throw new ScheduledTransferNotFoundException(scheduledTransferId);
+        }
+        return shardRouter.call(shardRouter.shardOf(scheduledTransferId), () -> {
+            ScheduledTransfer st = repository.findById(scheduledTransferId);
+            if (st == null) {
+                throw new ScheduledTransferNotFoundException(scheduledTransferId);
+            }
+            if (st.getStatus() != ScheduledTransferStatus.ACTIVE) {
+                throw new ScheduledTransferNotActiveException(scheduledTransferId, st.getStatus());
+            }
+            st.setStatus(ScheduledTransferStatus.CANCELLED);
+            return st;
+        });
+    }
+
+    public ScheduledTransfer findById(Long scheduledTransferId) {
+        if (scheduledTransferId == null || !shardRouter.isRoutable(scheduledTransferId)) {
+            return null;
+        }
+        return shardRouter.call(shardRouter.shardOf(scheduledTransferId), () -> repository.findById(scheduledTransferId));
+    }
+
+    public List<ScheduledTransfer> findActiveBySourceAccount(Long accountId) {
+        if (accountId == null || !shardRouter.isRoutable(accountId)) {
+            return List.of();
+        }
+        return shardRouter.call(shardRouter.shardOf(accountId), () -> repository.findActiveBySourceAccount(accountId));
+    }
+
+    // ── Loading ───────────────────────────────────────────────────────────────
+
+    void onCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ScheduledTransferCreated event) {
+        if (enabled) {
+            track(event.id(), event.nextAttemptAt());
+        }
+    }
+
+    /**
+     * Puts every active item due within the look-ahead on the wheel. Continues from where the
+     * previous call stopped; every {@code rescan-interval} a new pass starts from the
+     * beginning, catching items that were created or retried on other nodes behind the cursor.
+     * The look-ahead never exceeds the wheel's horizon (checked in {@link #init()}), so every
+     * item the cursor moves past has been tracked.
+     */
+    @Scheduled(every = "{banking.scheduled-transfers.load-interval}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void loadUpcoming() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (passStartedAt == null || passStartedAt.isBefore(now.minus(rescanInterval))) {
+            passStartedAt = now;
+            cursors.clear();
+        }
+        LocalDateTime until = now.plus(lookAhead);
+        int loaded = 0;
+        for (int shard : shardRouter.shards()) {
+            LoadCursor cursor = cursors.computeIfAbsent(shard, s -> new LoadCursor());
+            List<ScheduledTransferDue> page;
+            do {
+                page = shardRouter.callNew(shard,
+                    () -> repository.findUpcoming(cursor.time, cursor.id, until, loadPageSize));
+                for (ScheduledTransferDue due : page) {
+                    if (track(due.id(), due.nextAttemptAt())) {
+                        loaded++;
+                    }
+                }
+                if (!page.isEmpty()) {
+                    ScheduledTransferDue last = page.get(page.size() - 1);
+                    cursor.time = last.nextAttemptAt();
+                    cursor.id = last.id();
+                }
+            } while (page.size() == loadPageSize);
+        }
+        if (loaded > 0) {
+            LOG.info("Loaded {} scheduled transfers due until {}", loaded, until);
+        }
+    }
+
+    // ── Dispatch ──────────────────────────────────────────────────────────────
+
+    @Scheduled(every = "1s", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void tick() {
+        if (!enabled) {
+            return;
+        }
+        wheelLock.lock();
+        try {
+            wheel.advanceTo(System.currentTimeMillis(), pending::add);
+        } finally {
+            wheelLock.unlock();
+        }
+        if (!pending.isEmpty() && dispatching.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("scheduled-transfer-dispatcher").start(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            List<Long> batch;
+            while (!(batch = pollBatch()).isEmpty()) {
+                runBatch(batch);
+            }
+        } finally {
+            // Ids queued after the last poll are picked up by the next tick.
+            dispatching.set(false);
+        }
+    }
+
+    private List<Long> pollBatch() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        Long id;
+        while (batch.size() < batchSize && (id = pending.poll()) != null) {
+            batch.add(id);
+        }
+        return batch;
+    }
+
+    /**
+     * Drops ids that were cancelled or already executed elsewhere with one query, then executes
+     * the rest on {@code parallelism} virtual-thread workers.
+     */
+    private void runBatch(List<Long> batch) {
+        List<Long> due = new ArrayList<>(batch.size());
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            shardRouter.partition(batch, Long::longValue).forEach((shard, ids) ->
+                due.addAll(shardRouter.callNew(shard, () -> repository.findDue(ids, now))));
+        } catch (RuntimeException ex) {
+            // Forget the batch; the loader's next pass brings back whatever is still due.
+            LOG.error("Could not check {} due scheduled transfers", batch.size(), ex);
+            tracked.removeAll(batch);
+            return;
+        }
+        Set<Long> notDue = new HashSet<>(batch);
+        due.forEach(notDue::remove);
+        tracked.removeAll(notDue);
+        skipped.increment(notDue.size());
+
+        Queue<Long> work = new ConcurrentLinkedQueue<>(due);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.max(1, parallelism); i++) {
+                workers.submit(() -> drain(work));
+            }
+        }
+    }
+
+    private void drain(Queue<Long> work) {
+        Long id;
+        while ((id = work.poll()) != null) {
+            execute(id);
+        }
+    }
+
+    private void execute(Long id) {
+        long start = System.nanoTime();
+        ScheduledTransfer after;
+        try {
+            after = admissionController.execute("transfer",
+                () -> shardRouter.callNew(shardRouter.shardOf(id), () -> executeIfDue(id)));
+            (after != null ? executed : skipped).increment();
+        } catch (ServerBusyException ex) {
+            // Nothing was written; try again shortly without counting an attempt.
+            busy.increment();
+            reschedule(id, System.currentTimeMillis() + busyDelay.toMillis());
+            return;
+        } catch (Exception ex) {
+            failed.increment();
+            after = recordFailure(id, ex);
+        } finally {
+            executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        tracked.remove(id);
+        if (after != null && after.getStatus() == ScheduledTransferStatus.ACTIVE) {
+            track(id, after.getNextAttemptAt());
+        }
+    }
+
+    /**
+     * Executes the current occurrence and moves on to the next one, atomically. The caller
+     * holds the admission permit, hence the un-intercepted transfer.
+     *
+     * @return the item after the update, or null if it was locked by another node, cancelled,
+     *         or is not due (any more)
+     */
+    private ScheduledTransfer executeIfDue(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        ScheduledTransfer st = repository.lockIfDue(id, now).orElse(null);
+        if (st == null) {
+            return null;
+        }
+        transactionService.transferAdmitted(st.getSourceAccountId(), st.getTargetAccountId(), st.getAmount(),
+            st.getDescription() != null && !st.getDescription().isBlank()
+                ? st.getDescription()
+                : "Scheduled transfer #" + st.getId());
+        st.setExecutionCount(st.getExecutionCount() + 1);
+        st.setLastExecutedAt(now);
+        st.advance();
+        return st;
+    }
+
+    /**
+     * Records a failed attempt in a fresh transaction and schedules the retry.
+     *
+     * @return the item after the update, or null if it could not be updated
+     */
+    private ScheduledTransfer recordFailure(Long id, Exception cause) {
+        try {
+            return shardRouter.callNew(shardRouter.shardOf(id), () -> {
+                LocalDateTime now = LocalDateTime.now();
+                ScheduledTransfer st = repository.lockIfDue(id, now).orElse(null);
+                if (st == null) {
+                    return null;
+                }
+                int attempt = st.getAttempts() + 1;
+                ScheduledTransferFailure failure = new ScheduledTransferFailure();
+                failure.setScheduledTransfer(st);
+                failure.setDueAt(st.getDueAt());
+                failure.setAttempt(attempt);
+                failure.setError(describe(cause));
+                repository.getEntityManager().persist(failure);
+
+                if (attempt < maxAttempts) {
+                    st.setAttempts(attempt);
+                    st.setNextAttemptAt(now.plus(retryDelay.multipliedBy(1L << Math.min(attempt - 1, 16))));
+                    LOG.info("Scheduled transfer {} attempt {} failed, retrying at {}: {}",
+                        id, attempt, st.getNextAttemptAt(), failure.getError());
+                } else if (st.getRecurrence() == Recurrence.ONCE) {
+                    st.setAttempts(attempt);
+                    st.setStatus(ScheduledTransferStatus.FAILED);
+                    LOG.warn("Scheduled transfer {} failed after {} attempts: {}", id, attempt, failure.getError());
+                } else {
+                    LocalDateTime skippedDue = st.getDueAt();
+                    st.advance();
+                    LOG.warn("Standing order {} skipped occurrence {} after {} attempts: {}",
+                        id, skippedDue, attempt, failure.getError());
+                }
+                return st;
+            });
+        } catch (RuntimeException ex) {
+            // Still due in the table; the loader's next pass retries it.
+            LOG.error("Could not record failure of scheduled transfer {}", id, cause);
+            return null;
+        }
+    }
+
+    // ── Wheel helpers ─────────────────────────────────────────────────────────
+
+    /**
+     * Puts the id on the wheel unless it is already tracked. Ids that are already due go
+     * straight to dispatch; ids beyond the wheel's horizon are left to a later load.
+     *
+     * @return true if the id was newly tracked
+     */
+    private boolean track(long id, LocalDateTime nextAttemptAt) {
+        if (!tracked.add(id)) {
+            return false;
+        }
+        if (!reschedule(id, toMillis(nextAttemptAt))) {
+            tracked.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    /** @return false if the due time is beyond the wheel's horizon and the id was not taken */
+    private boolean reschedule(long id, long dueMillis) {
+        wheelLock.lock();
+        try {
+            return switch (wheel.add(id, dueMillis)) {
+                case SCHEDULED      -> true;
+                case ALREADY_DUE    -> {
+                    pending.add(id);
+                    yield true;
+                }
+                case BEYOND_HORIZON -> false;
+            };
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private int wheelSize() {
+        wheelLock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("banking.scheduled-transfers.executions")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String describe(Exception ex) {
+        String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    /** Keyset position of the loader on one shard: last (nextAttemptAt, id) read. */
+    private static final class LoadCursor {
+        LocalDateTime time;
+        Long id;
+    }
+}
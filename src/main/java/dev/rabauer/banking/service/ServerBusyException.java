@@ -0,0 +1,13 @@
+package dev.rabauer.banking.service;
+
+/**
+ * Thrown when admission control rejects a write because too many of the same operation are
+ * already running and the wait queue is full or the wait deadline passed. Nothing has been
+ * written; the caller may retry later.
+ */
+public class ServerBusyException extends RuntimeException {
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
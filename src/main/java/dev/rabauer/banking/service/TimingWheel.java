@@ -0,0 +1,130 @@
+package dev.rabauer.banking.service;
+
+import java.util.ArrayDeque;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel for scheduled-transfer ids.
+ *
+ * Level 0 has {@code slotsPerLevel} slots of {@code tickMillis} each, every higher level has
+ * the same number of slots, each spanning a whole rotation of the level below. An id is put
+ * on the lowest level whose rotation still reaches its due time; when time enters a
+ * higher-level slot, that slot is cascaded down, so every id is moved at most once per level.
+ * Adding and expiring are O(1) regardless of how many ids are pending.
+ *
+ * Not thread-safe on its own; callers synchronise.
+ */
+final class TimingWheel {
+
+    private final long tickMillis;
+    private final int slotsPerLevel;
+    /** Tick length per level: tickMillis * slotsPerLevel^level. */
+    private final long[] levelTicks;
+    private final ArrayDeque<Entry>[][] slots;
+
+    /** Start of the current level-0 tick; everything before it has been expired. */
+    private long now;
+    private int size;
+
+    TimingWheel(long tickMillis, int slotsPerLevel, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.slotsPerLevel = slotsPerLevel;
+        this.levelTicks = new long[levels];
+        this.slots = newSlots(levels, slotsPerLevel);
+        long tick = tickMillis;
+        for (int level = 0; level < levels; level++) {
+            levelTicks[level] = tick;
+            for (int slot = 0; slot < slotsPerLevel; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+            tick = Math.multiplyExact(tick, slotsPerLevel);
+        }
+        this.now = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * How far past the current time the horizon reaches at least: it drops to this just before
+     * it advances by a top-level tick. Delays up to this always fit, whatever the current time.
+     */
+    long guaranteedSpanMillis() {
+        return (slotsPerLevel - 1) * levelTicks[levelTicks.length - 1];
+    }
+
+    /**
+     * Latest due time that can still be held; ids due later must be added closer to their time.
+     * The end of the last top-level slot ahead, so it advances in steps of a top-level tick.
+     */
+    long horizonMillis() {
+        long topTick = levelTicks[levelTicks.length - 1];
+        return (now / topTick + slotsPerLevel) * topTick - 1;
+    }
+
+    /** Outcome of {@link #add}; only {@code SCHEDULED} puts the id on the wheel. */
+    enum Placement {
+        SCHEDULED,
+        /** Due before the current tick; the caller should dispatch it now. */
+        ALREADY_DUE,
+        /** Due after {@link #horizonMillis()}; the caller should add it again closer to its time. */
+        BEYOND_HORIZON
+    }
+
+    /** Schedules an id unless it is already due or beyond the horizon. */
+    Placement add(long id, long dueMillis) {
+        if (dueMillis < now) {
+            return Placement.ALREADY_DUE;
+        }
+        for (int level = 0; level < levelTicks.length; level++) {
+            long tick = levelTicks[level];
+            // Slot distance, not raw delay: the current slot of a higher level has already
+            // been cascaded, so only lower levels may receive ids due inside it.
+            if (dueMillis / tick - now / tick < slotsPerLevel) {
+                slots[level][(int) ((dueMillis / tick) % slotsPerLevel)].add(new Entry(id, dueMillis));
+                size++;
+                return Placement.SCHEDULED;
+            }
+        }
+        return Placement.BEYOND_HORIZON;
+    }
+
+    /** Advances to the given time and hands every id that became due to the consumer. */
+    void advanceTo(long timeMillis, LongConsumer expired) {
+        while (now + tickMillis <= timeMillis) {
+            now += tickMillis;
+            // Expire before cascading: a cascaded id may land in the slot that just expired,
+            // which is then the one furthest away, a full rotation from now.
+            ArrayDeque<Entry> slot = slots[0][(int) ((now / tickMillis - 1) % slotsPerLevel)];
+            Entry entry;
+            while ((entry = slot.poll()) != null) {
+                size--;
+                expired.accept(entry.id());
+            }
+            for (int level = levelTicks.length - 1; level > 0; level--) {
+                if (now % levelTicks[level] == 0) {
+                    cascade(level);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        ArrayDeque<Entry> slot = slots[level][(int) ((now / levelTicks[level]) % slotsPerLevel)];
+        Entry entry;
+        while ((entry = slot.poll()) != null) {
+            size--;
+            // The slot spans [now, now + levelTicks[level]), so the entry always fits below.
+            add(entry.id(), entry.dueMillis());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Entry>[][] newSlots(int levels, int slotsPerLevel) {
+        return (ArrayDeque<Entry>[][]) new ArrayDeque<?>[levels][slotsPerLevel];
+    }
+
+    private record Entry(long id, long dueMillis) {
+    }
+}
@@ -1,19 +1,30 @@
 package dev.rabauer.banking.service;
 
 import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.entity.CrossShardTransfer;
+import dev.rabauer.banking.entity.CrossShardTransferStatus;
 import dev.rabauer.banking.entity.Transaction;
 import dev.rabauer.banking.entity.TransactionType;
 import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.CrossShardTransferRepository;
+import dev.rabauer.banking.repository.HistoryEntry;
 import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.LockModeType;
-import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Ledger writes and reads. Every call runs on the shard that owns the account (see
+ * {@link ShardRouter}), joining the caller's transaction if it is on that shard.
+ */
 @ApplicationScoped
 public class TransactionService {
 
@@ -23,15 +34,28 @@ public class TransactionService {
     @Inject
     TransactionRepository transactionRepository;
 
+    @Inject
+    CrossShardTransferRepository crossShardTransferRepository;
+
+    @Inject
+    ShardRouter shardRouter;
+
+    @Inject
+    Event<CrossShardTransferPrepared> crossShardTransferPrepared;
+
     /**
      * Deposits cash into an account.
      * Creates a Transaction with a positive amount and no target account.
      */
-    @Transactional
+    @AdmissionControlled("deposit")
     public Transaction deposit(Long accountId, BigDecimal amount, String description) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
+        return shardRouter.call(shardOf(accountId), () -> applyDeposit(accountId, amount, description));
+    }
+
+    private Transaction applyDeposit(Long accountId, BigDecimal amount, String description) {
         Account account = lockAccount(accountId);
         Transaction tx = new Transaction();
         tx.setAccount(account);
@@ -47,11 +71,15 @@ public class TransactionService {
      * Creates a Transaction with a negative amount and no target account.
      * Throws InsufficientFundsException if the current balance is too low.
      */
-    @Transactional
+    @AdmissionControlled("withdraw")
     public Transaction withdraw(Long accountId, BigDecimal amount, String description) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
+        return shardRouter.call(shardOf(accountId), () -> applyWithdrawal(accountId, amount, description));
+    }
+
+    private Transaction applyWithdrawal(Long accountId, BigDecimal amount, String description) {
         Account account = lockAccount(accountId);
         BigDecimal currentBalance = transactionRepository.calculateBalance(accountId);
         if (currentBalance.compareTo(amount) < 0) {
@@ -69,20 +97,47 @@ public class TransactionService {
 
     /**
      * Transfers money between two accounts.
-     * Creates two Transaction records atomically:
+     * Creates two Transaction records:
      *   - Source account: negative amount, targetAccount set to destination.
      *   - Target account: positive amount, targetAccount set to source (for reference).
-     * Locks are always acquired in ascending id order to avoid deadlocks.
+     * If both accounts are on the same shard, both rows are written in one transaction and
+     * locks are always acquired in ascending id order to avoid deadlocks. Otherwise the debit
+     * is written together with a PENDING {@link CrossShardTransfer}, and the credit follows on
+     * the target shard once that transaction has committed (see {@link CrossShardTransferService}).
      */
-    @Transactional
+    @AdmissionControlled("transfer")
     public void transfer(Long sourceAccountId, Long targetAccountId,
                          BigDecimal amount, String description) {
+        transferAdmitted(sourceAccountId, targetAccountId, amount, description);
+    }
+
+    /**
+     * {@link #transfer} without admission control, for callers that already hold the
+     * "transfer" permit because they had to take it before opening their own transaction.
+     */
+    public void transferAdmitted(Long sourceAccountId, Long targetAccountId,
+                                 BigDecimal amount, String description) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Transfer amount must be positive");
         }
         if (sourceAccountId.equals(targetAccountId)) {
             throw new IllegalArgumentException("Source and target accounts must differ");
         }
+        int sourceShard = shardOf(sourceAccountId);
+        int targetShard = shardOf(targetAccountId);
+        if (sourceShard == targetShard) {
+            shardRouter.run(sourceShard, () -> applyLocalTransfer(sourceAccountId, targetAccountId, amount, description));
+            return;
+        }
+        // The credit must not fail later for lack of a target; accounts are never deleted.
+        if (shardRouter.callNew(targetShard, () -> accountRepository.findById(targetAccountId)) == null) {
+            throw new AccountNotFoundException(targetAccountId);
+        }
+        shardRouter.run(sourceShard, () -> applyCrossShardDebit(sourceAccountId, targetAccountId, amount, description));
+    }
+
+    private void applyLocalTransfer(Long sourceAccountId, Long targetAccountId,
+                                    BigDecimal amount, String description) {
         // Lock in ascending id order to prevent deadlocks
         Long firstId  = Math.min(sourceAccountId, targetAccountId);
         Long secondId = Math.max(sourceAccountId, targetAccountId);
@@ -119,18 +174,66 @@ public class TransactionService {
         transactionRepository.persist(credit);
     }
 
-    @Transactional
+    private void applyCrossShardDebit(Long sourceAccountId, Long targetAccountId,
+                                      BigDecimal amount, String description) {
+        Account source = lockAccount(sourceAccountId);
+        BigDecimal currentBalance = transactionRepository.calculateBalance(sourceAccountId);
+        if (currentBalance.compareTo(amount) < 0) {
+            throw new InsufficientFundsException(
+                "Insufficient funds: balance is " + currentBalance + ", requested " + amount);
+        }
+
+        BigDecimal scaled = scale(amount);
+
+        Transaction debit = new Transaction();
+        debit.setAccount(source);
+        // Reference only: the target row lives on another shard and is never loaded here.
+        debit.setTargetAccount(accountRepository.getEntityManager().getReference(Account.class, targetAccountId));
+        debit.setType(TransactionType.TRANSFER);
+        debit.setAmount(scaled.negate());
+        debit.setDescription(description);
+        transactionRepository.persist(debit);
+
+        CrossShardTransfer transfer = new CrossShardTransfer();
+        transfer.setSourceAccountId(sourceAccountId);
+        transfer.setTargetAccountId(targetAccountId);
+        transfer.setAmount(scaled);
+        transfer.setDescription(description);
+        transfer.setStatus(CrossShardTransferStatus.PENDING);
+        crossShardTransferRepository.persist(transfer);
+        crossShardTransferPrepared.fire(new CrossShardTransferPrepared(transfer.getId()));
+    }
+
     public List<Transaction> getTransactionHistory(Long accountId) {
-        return transactionRepository.findByAccountId(accountId);
+        return shardRouter.call(shardOf(accountId), () -> transactionRepository.findByAccountId(accountId));
+    }
+
+    /**
+     * Feeds one page of history (newest first, keyset-paginated by id) to the sink while the
+     * rows are read from the cursor, so large pages are never held in memory as a whole.
+     */
+    public void streamTransactionHistory(Long accountId, Long beforeId, int limit, Consumer<HistoryEntry> sink) {
+        shardRouter.run(shardOf(accountId), () -> {
+            try (Stream<HistoryEntry> entries = transactionRepository.streamHistory(accountId, beforeId, limit)) {
+                entries.forEach(sink);
+            }
+        });
     }
 
     // --- Private helpers ---
 
+    private int shardOf(Long accountId) {
+        if (accountId == null || !shardRouter.isRoutable(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return shardRouter.shardOf(accountId);
+    }
+
     private Account lockAccount(Long accountId) {
         Account account = accountRepository.getEntityManager()
             .find(Account.class, accountId, LockModeType.PESSIMISTIC_WRITE);
         if (account == null) {
-            throw new IllegalArgumentException("Account not found: " + accountId);
+            throw new AccountNotFoundException(accountId);
         }
         return account;
     }
@@ -0,0 +1,45 @@
+package dev.rabauer.banking.sharding;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.customized.QuarkusConnectionProvider;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+/**
+ * Connections per shard: shard 0 is the default datasource, so a single-shard setup needs no
+ * extra configuration; shard n (n > 0) is the named datasource {@code shard<n>}.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ShardConnectionResolver implements TenantConnectionResolver {
+
+    @Inject
+    AgroalDataSource defaultDataSource;
+
+    @Inject
+    @Any
+    Instance<AgroalDataSource> dataSources;
+
+    @Override
+    public ConnectionProvider resolve(String tenantId) {
+        return new QuarkusConnectionProvider(dataSource(ShardRouter.shardOfTenant(tenantId)));
+    }
+
+    AgroalDataSource dataSource(int shard) {
+        if (shard == 0) {
+            return defaultDataSource;
+        }
+        Instance<AgroalDataSource> named = dataSources.select(new DataSource.DataSourceLiteral(ShardRouter.dataSourceName(shard)));
+        if (!named.isResolvable()) {
+            throw new IllegalStateException("No datasource configured for shard " + shard
+                + " (quarkus.datasource." + ShardRouter.dataSourceName(shard) + ".*)");
+        }
+        return named.get();
+    }
+}
@@ -0,0 +1,66 @@
+package dev.rabauer.banking.sharding;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works on. Read by {@link ShardTenantResolver} when Hibernate
+ * opens a session, i.e. at the first database access of a transaction; a session stays on its
+ * shard until the transaction ends. Unset means shard 0.
+ *
+ * Worker threads do not inherit the shard; wrap their tasks with {@link #bind(Runnable)}.
+ * Quarkus only consults the tenant resolver while a request context is active, so
+ * {@link #with(int, Supplier)} activates one for the task if the thread has none (scheduler
+ * workers, virtual threads, the group-commit flusher).
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /** @return the current shard, 0 if none is set */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    /** Runs the task with the given shard as current, restoring the previous one afterwards. */
+    public static <T> T with(int shard, Supplier<T> task) {
+        Integer previous = CURRENT.get();
+        ManagedContext requestContext = Arc.container().requestContext();
+        boolean activated = !requestContext.isActive();
+        if (activated) {
+            requestContext.activate();
+        }
+        CURRENT.set(shard);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            if (activated) {
+                requestContext.terminate();
+            }
+        }
+    }
+
+    public static void with(int shard, Runnable task) {
+        with(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Captures the current shard so the task runs on it on whichever thread executes it. */
+    public static Runnable bind(Runnable task) {
+        int shard = current();
+        return () -> with(shard, task);
+    }
+}
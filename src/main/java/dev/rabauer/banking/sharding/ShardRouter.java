@@ -0,0 +1,194 @@
+package dev.rabauer.banking.sharding;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Places accounts and their ledgers on one of {@code banking.sharding.shards} databases.
+ *
+ * Every id generated on shard n is {@code >= n << 48} (see V6__sharding.sql), so the shard of
+ * an account, ledger row or scheduled transfer is read straight from its id. New accounts are
+ * placed by a hash of their account number, so an account number routes to the same shard as
+ * the account's id. Rows written before sharding was enabled all live on shard 0, which is
+ * where their ids route.
+ *
+ * A transaction is bound to one shard. {@link #call(int, Supplier)} joins the caller's
+ * transaction when it is on the same shard and starts one otherwise; it refuses to switch
+ * shards inside a transaction, since the session would silently stay on the first shard.
+ */
+@ApplicationScoped
+public class ShardRouter {
+
+    /** Bits below the shard number; 2^48 ids per shard, up to 32 shards stay within 2^53. */
+    public static final int SHARD_SHIFT = 48;
+
+    private static final String TENANT_PREFIX = "shard";
+
+    @ConfigProperty(name = "banking.sharding.shards", defaultValue = "1")
+    int shardCount;
+
+    @Inject
+    @PersistenceUnitExtension
+    ShardConnectionResolver connectionResolver;
+
+    /** Fails startup if a configured shard has no datasource. */
+    void validate(@Observes StartupEvent event) {
+        if (shardCount < 1 || shardCount > 32) {
+            throw new IllegalStateException("banking.sharding.shards must be between 1 and 32, was " + shardCount);
+        }
+        shards().forEach(connectionResolver::dataSource);
+    }
+
+    // ── Routing ───────────────────────────────────────────────────────────────
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public List<Integer> shards() {
+        return IntStream.range(0, shardCount).boxed().toList();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id does not belong to a configured shard
+     */
+    public int shardOf(long id) {
+        long shard = id >>> SHARD_SHIFT;
+        if (shard >= shardCount) {
+            throw new IllegalArgumentException("Id " + id + " does not belong to any of " + shardCount + " shards");
+        }
+        return (int) shard;
+    }
+
+    /** @return true if the id belongs to one of the configured shards */
+    public boolean isRoutable(long id) {
+        return id > 0 && (id >>> SHARD_SHIFT) < shardCount;
+    }
+
+    /** Whether both ids were generated on the same shard; does not validate them. */
+    public static boolean sameShard(long a, long b) {
+        return (a >>> SHARD_SHIFT) == (b >>> SHARD_SHIFT);
+    }
+
+    /** Shard a new account with this number is created on. */
+    public int shardOfAccountNumber(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), shardCount);
+    }
+
+    /** Groups items by the shard of their id, shards ascending. */
+    public <T> Map<Integer, List<T>> partition(Collection<T> items, ToLongFunction<T> id) {
+        Map<Integer, List<T>> byShard = new TreeMap<>();
+        for (T item : items) {
+            byShard.computeIfAbsent(shardOf(id.applyAsLong(item)), s -> new ArrayList<>()).add(item);
+        }
+        return byShard;
+    }
+
+    /** Lowest id generated on the shard; shard 0 starts at 1 like a plain sequence. */
+    public static long firstId(int shard) {
+        return shard == 0 ? 1 : (long) shard << SHARD_SHIFT;
+    }
+
+    static String tenantId(int shard) {
+        return TENANT_PREFIX + shard;
+    }
+
+    static int shardOfTenant(String tenantId) {
+        return Integer.parseInt(tenantId.substring(TENANT_PREFIX.length()));
+    }
+
+    static String dataSourceName(int shard) {
+        return TENANT_PREFIX + shard;
+    }
+
+    // ── Execution ─────────────────────────────────────────────────────────────
+
+    /**
+     * Runs the task in a transaction on the given shard, joining the caller's transaction if
+     * it is on the same shard.
+     *
+     * @throws IllegalStateException if the caller's transaction is on a different shard
+     */
+    public <T> T call(int shard, Supplier<T> task) {
+        if (QuarkusTransaction.isActive()) {
+            int active = ShardContext.current();
+            if (active != shard) {
+                throw new IllegalStateException(
+                    "Cannot access shard " + shard + " inside a transaction on shard " + active);
+            }
+            return task.get();
+        }
+        return callNew(shard, task);
+    }
+
+    public void run(int shard, Runnable task) {
+        call(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Runs the task in a new transaction on the given shard, suspending the caller's. */
+    public <T> T callNew(int shard, Supplier<T> task) {
+        return ShardContext.with(shard, () -> QuarkusTransaction.requiringNew().call(task::get));
+    }
+
+    public void runNew(int shard, Runnable task) {
+        callNew(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task on every shard in parallel, each in its own transaction.
+     *
+     * @return the results in shard order
+     */
+    public <T> List<T> scatter(IntFunction<T> perShard) {
+        if (shardCount == 1) {
+            List<T> single = new ArrayList<>(1);
+            single.add(callNew(0, () -> perShard.apply(0)));
+            return single;
+        }
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                int s = shard;
+                futures.add(workers.submit(() -> callNew(s, () -> perShard.apply(s))));
+            }
+            List<T> results = new ArrayList<>(shardCount);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", ex);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.rabauer.banking.sharding;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/** Maps the thread's {@link ShardContext} to the Hibernate tenant, i.e. the shard's datasource. */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ShardTenantResolver implements TenantResolver {
+
+    @Override
+    public String getDefaultTenantId() {
+        return ShardRouter.tenantId(0);
+    }
+
+    @Override
+    public String resolveTenantId() {
+        return ShardRouter.tenantId(ShardContext.current());
+    }
+}
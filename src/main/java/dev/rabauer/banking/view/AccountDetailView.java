@@ -18,18 +18,19 @@ import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteParameters;
-import dev.rabauer.banking.entity.Account;
 import dev.rabauer.banking.entity.Transaction;
 import dev.rabauer.banking.entity.TransactionType;
+import dev.rabauer.banking.service.AccountDirectory;
 import dev.rabauer.banking.service.AccountService;
+import dev.rabauer.banking.service.GroupCommitService;
 import dev.rabauer.banking.service.InsufficientFundsException;
+import dev.rabauer.banking.service.ServerBusyException;
 import dev.rabauer.banking.service.TransactionService;
 import jakarta.inject.Inject;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 @Route("account/:accountId(\\d+)")
 public class AccountDetailView extends VerticalLayout implements BeforeEnterObserver {
@@ -39,6 +40,8 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
 
     private final AccountService accountService;
     private final TransactionService transactionService;
+    private final GroupCommitService groupCommitService;
+    private final AccountDirectory directory;
 
     private Long accountId;
     private Span balanceLabel;
@@ -46,9 +49,13 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
 
     @Inject
     public AccountDetailView(AccountService accountService,
-                             TransactionService transactionService) {
+                             TransactionService transactionService,
+                             GroupCommitService groupCommitService,
+                             AccountDirectory directory) {
         this.accountService = accountService;
         this.transactionService = transactionService;
+        this.groupCommitService = groupCommitService;
+        this.directory = directory;
     }
 
     // ── Routing ───────────────────────────────────────────────────────────────
@@ -61,19 +68,18 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
             return;
         }
         this.accountId = Long.parseLong(raw);
-        Account account = accountService.findById(accountId).orElse(null);
-        if (account == null) {
+        if (!directory.contains(accountId)) {
             Notification.show("Account not found").addThemeVariants(NotificationVariant.LUMO_ERROR);
             event.forwardTo(AccountListView.class);
             return;
         }
-        buildUI(account);
+        buildUI();
         refresh();
     }
 
     // ── UI construction ──────────────────────────────────────────────────────
 
-    private void buildUI(Account account) {
+    private void buildUI() {
         removeAll();
         setPadding(true);
         setSpacing(true);
@@ -82,7 +88,7 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
             e -> UI.getCurrent().navigate(AccountListView.class));
         add(back);
 
-        add(new H2(account.getOwnerName() + "  —  " + account.getAccountNumber()));
+        add(new H2(directory.ownerName(accountId) + "  —  " + directory.accountNumber(accountId)));
 
         // Balance row
         balanceLabel = new Span();
@@ -114,7 +120,7 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
             return (amt.compareTo(BigDecimal.ZERO) >= 0 ? "+" : "") + amt.toPlainString() + " €";
         }).setHeader("Amount").setWidth("120px").setFlexGrow(0);
         transactionGrid.addColumn(t ->
-            t.getTargetAccount() != null ? t.getTargetAccount().getAccountNumber() : "—"
+            t.getTargetAccountId() != null ? directory.accountNumber(t.getTargetAccountId()) : "—"
         ).setHeader("Counter Account").setWidth("160px").setFlexGrow(0);
         transactionGrid.addColumn(Transaction::getDescription)
             .setHeader("Description");
@@ -129,7 +135,7 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
         Dialog dialog = buildFormDialog("Deposit", form, () -> {
             BigDecimal amount = parseAmount(form.getAmountValue());
             if (amount == null) return;
-            transactionService.deposit(accountId, amount, form.getDescriptionValue());
+            groupCommitService.deposit(accountId, amount, form.getDescriptionValue());
         });
         dialog.open();
     }
@@ -151,16 +157,15 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
     }
 
     private void openTransferDialog() {
-        List<Account> otherAccounts = accountService.findAll().stream()
-            .filter(a -> !a.getId().equals(accountId))
-            .toList();
-
         Dialog dialog = new Dialog();
         dialog.setHeaderTitle("Transfer");
 
-        ComboBox<Account> targetCombo = new ComboBox<>("Target Account");
-        targetCombo.setItems(otherAccounts);
-        targetCombo.setItemLabelGenerator(Account::toString);
+        // Lazily filtered against the shared directory; only ids are held by the component.
+        ComboBox<Long> targetCombo = new ComboBox<>("Target Account");
+        targetCombo.setItems(query -> directory.search(query.getFilter().orElse(""), accountId)
+            .skip(query.getOffset())
+            .limit(query.getLimit()));
+        targetCombo.setItemLabelGenerator(directory::label);
         targetCombo.setWidthFull();
         targetCombo.setRequiredIndicatorVisible(true);
 
@@ -176,7 +181,7 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
             BigDecimal amount = parseAmount(form.getAmountValue());
             if (amount == null) return;
             try {
-                transactionService.transfer(accountId, targetCombo.getValue().getId(),
+                transactionService.transfer(accountId, targetCombo.getValue(),
                     amount, form.getDescriptionValue());
                 dialog.close();
                 refresh();
@@ -184,6 +189,8 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
             } catch (InsufficientFundsException ex) {
                 Notification.show("Insufficient funds: " + ex.getMessage())
                     .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            } catch (ServerBusyException ex) {
+                showBusy();
             }
         });
         confirm.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
@@ -209,7 +216,9 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
             } catch (RuntimeException ex) {
                 // InsufficientFundsException is handled inside openWithdrawDialog;
                 // other runtime exceptions bubble to the Vaadin error handler.
-                if (!(ex instanceof InsufficientFundsException)) {
+                if (ex instanceof ServerBusyException) {
+                    showBusy();
+                } else if (!(ex instanceof InsufficientFundsException)) {
                     Notification.show("Error: " + ex.getMessage())
                         .addThemeVariants(NotificationVariant.LUMO_ERROR);
                 }
@@ -230,6 +239,12 @@ public class AccountDetailView extends VerticalLayout implements BeforeEnterObse
         transactionGrid.setItems(transactionService.getTransactionHistory(accountId));
     }
 
+    /** Admission control rejected the write; the dialog stays open so the user can retry. */
+    private void showBusy() {
+        Notification.show("The bank is busy right now, please try again in a moment.")
+            .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
+    }
+
     /** Parses the amount string and shows an error notification on failure. */
     private BigDecimal parseAmount(String raw) {
         try {
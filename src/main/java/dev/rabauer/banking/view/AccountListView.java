@@ -9,15 +9,17 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouterLink;
-import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.service.AccountDirectory;
 import dev.rabauer.banking.service.AccountService;
 import jakarta.inject.Inject;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,13 +27,17 @@ import java.util.Map;
 public class AccountListView extends VerticalLayout {
 
     private final AccountService accountService;
+    private final AccountDirectory directory;
 
-    private Grid<Account> grid;
-    private Map<Long, BigDecimal> balanceCache = new HashMap<>();
+    /** Rows are account ids; everything else is rendered from the shared {@link AccountDirectory}. */
+    private Grid<Long> grid;
+    /** Balances of the most recently fetched rows, bounded to a few grid pages. */
+    private Map<Long, BigDecimal> balanceCache = newBalanceCache();
 
     @Inject
-    public AccountListView(AccountService accountService) {
+    public AccountListView(AccountService accountService, AccountDirectory directory) {
         this.accountService = accountService;
+        this.directory = directory;
         buildUI();
         refreshGrid();
     }
@@ -48,19 +54,21 @@ public class AccountListView extends VerticalLayout {
         Button newBtn = new Button("New Account", e -> openNewAccountDialog());
         add(newBtn);
 
-        grid = new Grid<>(Account.class, false);
-        grid.addColumn(Account::getAccountNumber).setHeader("Account Number").setSortable(true);
-        grid.addColumn(Account::getOwnerName).setHeader("Owner").setSortable(true);
-        grid.addColumn(a -> formatBalance(balanceCache.getOrDefault(a.getId(), BigDecimal.ZERO)))
+        grid = new Grid<>(Long.class, false);
+        grid.addColumn(directory::accountNumber).setHeader("Account Number")
+            .setSortProperty(AccountDirectory.SORT_ACCOUNT_NUMBER);
+        grid.addColumn(directory::ownerName).setHeader("Owner")
+            .setSortProperty(AccountDirectory.SORT_OWNER_NAME);
+        grid.addColumn(id -> formatBalance(balanceCache.getOrDefault(id, BigDecimal.ZERO)))
             .setHeader("Balance");
-        grid.addColumn(Account::getCreatedAt).setHeader("Created");
+        grid.addColumn(directory::createdAt).setHeader("Created");
 
         // Row click → detail view
         grid.addItemClickListener(e -> {
-            Account account = e.getItem();
+            Long accountId = e.getItem();
             getUI().ifPresent(ui -> ui.navigate(
                 AccountDetailView.class,
-                new com.vaadin.flow.router.RouteParameters("accountId", String.valueOf(account.getId()))
+                new com.vaadin.flow.router.RouteParameters("accountId", String.valueOf(accountId))
             ));
         });
 
@@ -101,12 +109,35 @@ public class AccountListView extends VerticalLayout {
 
     // ── Data ──────────────────────────────────────────────────────────────────
 
+    /**
+     * Lazily pages ids out of the directory; balances are loaded per fetched page
+     * with one grouped query instead of one query per account.
+     */
     private void refreshGrid() {
-        List<Account> accounts = accountService.findAll();
-        balanceCache = new HashMap<>();
-        accounts.forEach(a -> balanceCache.put(a.getId(),
-            accountService.calculateCurrentBalance(a.getId())));
-        grid.setItems(accounts);
+        balanceCache = newBalanceCache();
+        grid.setItems(query -> {
+            QuerySortOrder order = query.getSortOrders().isEmpty() ? null : query.getSortOrders().get(0);
+            List<Long> page = directory.page(
+                order != null ? order.getSorted() : AccountDirectory.SORT_OWNER_NAME,
+                order != null && order.getDirection() == SortDirection.DESCENDING,
+                query.getOffset(), query.getLimit());
+            balanceCache.putAll(accountService.calculateCurrentBalances(page));
+            return page.stream();
+        }, query -> directory.size());
+    }
+
+    /**
+     * Least-recently-fetched balances are evicted once more than three grid pages are held, so
+     * scrolling through a long list does not accumulate one entry per account in the session.
+     */
+    private Map<Long, BigDecimal> newBalanceCache() {
+        int capacity = 3 * (grid != null ? grid.getPageSize() : 50);
+        return new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BigDecimal> eldest) {
+                return size() > capacity;
+            }
+        };
     }
 
     private String formatBalance(BigDecimal balance) {
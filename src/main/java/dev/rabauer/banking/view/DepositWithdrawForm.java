@@ -18,6 +18,8 @@ public class DepositWithdrawForm extends FormLayout {
             case DEPOSIT    -> "Deposit Amount (€)";
             case WITHDRAWAL -> "Withdrawal Amount (€)";
             case TRANSFER   -> "Transfer Amount (€)";
+            case INTEREST   -> "Interest Amount (€)";
+            case FEE        -> "Fee Amount (€)";
         };
 
         amountField = new TextField(amountLabel);
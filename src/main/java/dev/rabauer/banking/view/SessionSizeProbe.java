@@ -0,0 +1,91 @@
+package dev.rabauer.banking.view;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Diagnostic: logs the serialized size of each UI after every navigation, as a proxy for the
+ * heap retained per browser tab. Disabled by default since it serializes the whole component tree.
+ *
+ * Enable with {@code banking.session-size.log-enabled=true}.
+ */
+@ApplicationScoped
+public class SessionSizeProbe {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionSizeProbe.class);
+
+    @ConfigProperty(name = "banking.session-size.log-enabled", defaultValue = "false")
+    boolean enabled;
+
+    void onServiceInit(@Observes ServiceInitEvent event) {
+        if (!enabled) {
+            return;
+        }
+        event.getSource().addUIInitListener(init -> {
+            UI ui = init.getUI();
+            ui.addAfterNavigationListener(nav -> LOG.info("UI {} ({}) retains ~{} bytes",
+                ui.getUIId(), nav.getLocation().getPath(), measure(ui)));
+        });
+    }
+
+    /**
+     * Serialized size of the given object graph. Shared infrastructure (session, service)
+     * and non-serializable references such as CDI client proxies are counted as null, so the
+     * figure covers only state owned by the graph itself.
+     *
+     * @return size in bytes, or -1 if serialization failed
+     */
+    static long measure(Object root) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (ObjectOutputStream out = new PruningObjectOutputStream(counter)) {
+            out.writeObject(root);
+        } catch (IOException | RuntimeException ex) {
+            LOG.debug("Could not measure {}", root, ex);
+            return -1;
+        }
+        return counter.count;
+    }
+
+    private static final class PruningObjectOutputStream extends ObjectOutputStream {
+
+        PruningObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (obj instanceof VaadinSession || obj instanceof VaadinService || !(obj instanceof Serializable)) {
+                return null;
+            }
+            return obj;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
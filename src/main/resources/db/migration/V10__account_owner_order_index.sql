@@ -0,0 +1,3 @@
+-- Serves the keyset-paginated account list: (owner_name, account_number) in byte order, which
+-- each shard returns and AccountService merges without depending on the database collation.
+CREATE INDEX idx_account_owner_number ON account (owner_name COLLATE "C", account_number COLLATE "C");
@@ -0,0 +1,5 @@
+-- Lease on a reconciliation run. The node verifying the run renews lease_until with every
+-- range it commits; another node resumes the run only after the lease has expired, so two
+-- nodes never verify the same run at once.
+ALTER TABLE reconciliation_run ADD COLUMN lease_owner VARCHAR(64);
+ALTER TABLE reconciliation_run ADD COLUMN lease_until TIMESTAMP;
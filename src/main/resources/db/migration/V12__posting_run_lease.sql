@@ -0,0 +1,5 @@
+-- Lease on a posting run, like reconciliation_run's: the node posting the run renews
+-- lease_until with every chunk it commits, and another node resumes the run only after the
+-- lease has expired.
+ALTER TABLE posting_run ADD COLUMN lease_owner VARCHAR(64);
+ALTER TABLE posting_run ADD COLUMN lease_until TIMESTAMP;
@@ -0,0 +1,42 @@
+CREATE SEQUENCE reconciliation_run_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE reconciliation_run (
+    id                 BIGINT      NOT NULL DEFAULT nextval('reconciliation_run_seq') PRIMARY KEY,
+    status             VARCHAR(20) NOT NULL,
+    range_size         INTEGER     NOT NULL,
+    max_transaction_id BIGINT      NOT NULL,
+    max_account_id     BIGINT      NOT NULL,
+    discrepancy_count  BIGINT      NOT NULL DEFAULT 0,
+    started_at         TIMESTAMP   NOT NULL,
+    finished_at        TIMESTAMP
+);
+
+CREATE SEQUENCE reconciliation_checkpoint_seq START WITH 1 INCREMENT BY 1;
+
+-- One row per verified id range; written in the same transaction as the range's discrepancies.
+CREATE TABLE reconciliation_checkpoint (
+    id                BIGINT         NOT NULL DEFAULT nextval('reconciliation_checkpoint_seq') PRIMARY KEY,
+    run_id            BIGINT         NOT NULL REFERENCES reconciliation_run(id),
+    scope             VARCHAR(20)    NOT NULL,
+    range_start       BIGINT         NOT NULL,
+    range_end         BIGINT         NOT NULL,
+    total_amount      NUMERIC(19, 4) NOT NULL,
+    deposit_amount    NUMERIC(19, 4) NOT NULL,
+    withdrawal_amount NUMERIC(19, 4) NOT NULL,
+    completed_at      TIMESTAMP      NOT NULL,
+    UNIQUE (run_id, scope, range_start)
+);
+
+CREATE SEQUENCE reconciliation_discrepancy_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE reconciliation_discrepancy (
+    id             BIGINT       NOT NULL DEFAULT nextval('reconciliation_discrepancy_seq') PRIMARY KEY,
+    run_id         BIGINT       NOT NULL REFERENCES reconciliation_run(id),
+    type           VARCHAR(40)  NOT NULL,
+    account_id     BIGINT,
+    transaction_id BIGINT,
+    detail         VARCHAR(500) NOT NULL,
+    created_at     TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_reconciliation_discrepancy_run_id ON reconciliation_discrepancy(run_id);
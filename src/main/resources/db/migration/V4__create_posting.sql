@@ -0,0 +1,29 @@
+CREATE SEQUENCE posting_run_seq START WITH 1 INCREMENT BY 1;
+
+-- One row per posting period; the period is unique so a period can never be posted twice.
+CREATE TABLE posting_run (
+    id             BIGINT         NOT NULL DEFAULT nextval('posting_run_seq') PRIMARY KEY,
+    period         VARCHAR(7)     NOT NULL UNIQUE,
+    status         VARCHAR(20)    NOT NULL,
+    interest_rate  NUMERIC(9, 6)  NOT NULL,
+    monthly_fee    NUMERIC(19, 4) NOT NULL,
+    chunk_size     INTEGER        NOT NULL,
+    max_account_id BIGINT         NOT NULL,
+    posting_count  BIGINT         NOT NULL DEFAULT 0,
+    started_at     TIMESTAMP      NOT NULL,
+    finished_at    TIMESTAMP
+);
+
+CREATE SEQUENCE posting_chunk_seq START WITH 1 INCREMENT BY 1;
+
+-- Checkpoint per chunk of accounts (after_account_id, last_account_id];
+-- committed in the same transaction as the chunk's postings.
+CREATE TABLE posting_chunk (
+    id               BIGINT    NOT NULL DEFAULT nextval('posting_chunk_seq') PRIMARY KEY,
+    run_id           BIGINT    NOT NULL REFERENCES posting_run(id),
+    after_account_id BIGINT    NOT NULL,
+    last_account_id  BIGINT    NOT NULL,
+    posting_count    INTEGER   NOT NULL,
+    completed_at     TIMESTAMP NOT NULL,
+    UNIQUE (run_id, after_account_id)
+);
@@ -0,0 +1,40 @@
+CREATE SEQUENCE scheduled_transfer_seq START WITH 1 INCREMENT BY 1;
+
+-- Standing orders and future-dated transfers. due_at is occurrence number `occurrence`
+-- counted from first_due_at; next_attempt_at is when it is tried next (later than due_at
+-- while retrying).
+CREATE TABLE scheduled_transfer (
+    id                BIGINT         NOT NULL DEFAULT nextval('scheduled_transfer_seq') PRIMARY KEY,
+    source_account_id BIGINT         NOT NULL REFERENCES account(id),
+    target_account_id BIGINT         NOT NULL REFERENCES account(id),
+    amount            NUMERIC(19, 4) NOT NULL,
+    description       VARCHAR(500),
+    recurrence        VARCHAR(20)    NOT NULL,
+    status            VARCHAR(20)    NOT NULL,
+    first_due_at      TIMESTAMP      NOT NULL,
+    occurrence        BIGINT         NOT NULL DEFAULT 0,
+    due_at            TIMESTAMP      NOT NULL,
+    next_attempt_at   TIMESTAMP      NOT NULL,
+    attempts          INTEGER        NOT NULL DEFAULT 0,
+    execution_count   BIGINT         NOT NULL DEFAULT 0,
+    last_executed_at  TIMESTAMP,
+    created_at        TIMESTAMP      NOT NULL
+);
+
+-- The loader only ever scans active items in due order.
+CREATE INDEX idx_scheduled_transfer_next_attempt ON scheduled_transfer(next_attempt_at) WHERE status = 'ACTIVE';
+CREATE INDEX idx_scheduled_transfer_source_account_id ON scheduled_transfer(source_account_id);
+
+CREATE SEQUENCE scheduled_transfer_failure_seq START WITH 1 INCREMENT BY 1;
+
+-- One row per failed attempt.
+CREATE TABLE scheduled_transfer_failure (
+    id                    BIGINT       NOT NULL DEFAULT nextval('scheduled_transfer_failure_seq') PRIMARY KEY,
+    scheduled_transfer_id BIGINT       NOT NULL REFERENCES scheduled_transfer(id),
+    due_at                TIMESTAMP    NOT NULL,
+    attempt               INTEGER      NOT NULL,
+    error                 VARCHAR(500) NOT NULL,
+    failed_at             TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_scheduled_transfer_failure_transfer_id ON scheduled_transfer_failure(scheduled_transfer_id);
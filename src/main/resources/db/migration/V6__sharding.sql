@@ -0,0 +1,50 @@
+-- Runs on every shard; ${shard} is set per datasource (quarkus.flyway[.shardN].placeholders.shard).
+
+-- Ids generated on shard n start at n << 48, so the shard can be read from any id.
+-- Shard 0 keeps its sequences: rows that existed before sharding stay valid and route there.
+DO $$
+BEGIN
+    IF ${shard} > 0 THEN
+        PERFORM setval('account_seq',            ${shard}::bigint << 48, false);
+        PERFORM setval('transaction_seq',        ${shard}::bigint << 48, false);
+        PERFORM setval('scheduled_transfer_seq', ${shard}::bigint << 48, false);
+    END IF;
+END $$;
+
+-- Counter accounts of transfers and standing orders may live on another shard.
+ALTER TABLE transaction DROP CONSTRAINT IF EXISTS transaction_target_account_id_fkey;
+ALTER TABLE scheduled_transfer DROP CONSTRAINT IF EXISTS scheduled_transfer_target_account_id_fkey;
+
+CREATE SEQUENCE cross_shard_transfer_seq START WITH 1 INCREMENT BY 1;
+
+DO $$
+BEGIN
+    IF ${shard} > 0 THEN
+        PERFORM setval('cross_shard_transfer_seq', ${shard}::bigint << 48, false);
+    END IF;
+END $$;
+
+-- Source side of a transfer between shards: written with the debit, completed once the
+-- target shard has applied the credit. PENDING rows are re-driven by the recovery job.
+CREATE TABLE cross_shard_transfer (
+    id                BIGINT         NOT NULL DEFAULT nextval('cross_shard_transfer_seq') PRIMARY KEY,
+    source_account_id BIGINT         NOT NULL REFERENCES account(id),
+    target_account_id BIGINT         NOT NULL,
+    amount            NUMERIC(19, 4) NOT NULL,
+    description       VARCHAR(500),
+    status            VARCHAR(20)    NOT NULL,
+    attempts          INTEGER        NOT NULL DEFAULT 0,
+    last_error        VARCHAR(500),
+    created_at        TIMESTAMP      NOT NULL,
+    completed_at      TIMESTAMP
+);
+
+CREATE INDEX idx_cross_shard_transfer_pending ON cross_shard_transfer(created_at) WHERE status = 'PENDING';
+
+-- Target side: one row per applied credit, written in the credit's transaction. The primary
+-- key rejects a second credit for the same transfer.
+CREATE TABLE cross_shard_credit (
+    transfer_id    BIGINT    NOT NULL PRIMARY KEY,
+    transaction_id BIGINT    NOT NULL REFERENCES transaction(id),
+    applied_at     TIMESTAMP NOT NULL
+);
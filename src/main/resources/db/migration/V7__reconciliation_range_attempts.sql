@@ -0,0 +1,14 @@
+-- Failed attempts per reconciliation range. A range that keeps failing is given up after
+-- banking.reconciliation.max-range-attempts and recorded as a discrepancy instead of being
+-- resumed by every following run.
+CREATE TABLE reconciliation_range_failure (
+    run_id      BIGINT       NOT NULL REFERENCES reconciliation_run(id),
+    scope       VARCHAR(20)  NOT NULL,
+    range_start BIGINT       NOT NULL,
+    attempts    INTEGER      NOT NULL,
+    last_error  VARCHAR(500),
+    PRIMARY KEY (run_id, scope, range_start)
+);
+
+-- False for ranges that were given up: their sums are missing from the run-wide ledger check.
+ALTER TABLE reconciliation_checkpoint ADD COLUMN verified BOOLEAN NOT NULL DEFAULT TRUE;
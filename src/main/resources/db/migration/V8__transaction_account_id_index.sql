@@ -0,0 +1,4 @@
+-- Serves per-account lookups as before, and answers MAX(id) for one account (the ledger
+-- version behind balance ETags) and newest-first history pages from the index alone.
+CREATE INDEX idx_transaction_account_id_id ON transaction(account_id, id);
+DROP INDEX idx_transaction_account_id;
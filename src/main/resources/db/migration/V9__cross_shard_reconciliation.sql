@@ -0,0 +1,6 @@
+-- Reconciliation pairs cross_shard_transfer rows (source shard) with cross_shard_credit rows
+-- (target shard). Runs freeze the highest transfer id like the other id bounds.
+ALTER TABLE reconciliation_run ADD COLUMN max_cross_shard_transfer_id BIGINT NOT NULL DEFAULT 0;
+
+-- Credits are verified in ranges of their ledger row id.
+CREATE INDEX idx_cross_shard_credit_transaction_id ON cross_shard_credit(transaction_id);
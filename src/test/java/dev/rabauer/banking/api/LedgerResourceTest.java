@@ -0,0 +1,188 @@
+package dev.rabauer.banking.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.TransactionRepository;
+import dev.rabauer.banking.service.AccountService;
+import dev.rabauer.banking.service.AdmissionController;
+import dev.rabauer.banking.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class LedgerResourceTest {
+
+    @TestHTTPResource("/api/")
+    URI api;
+
+    @Inject
+    AccountService accountService;
+
+    @Inject
+    TransactionService transactionService;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @Test
+    void balanceIsNotModifiedUntilTheLedgerChanges() throws Exception {
+        Long id = createAccount("ETag test");
+        transactionService.deposit(id, new BigDecimal("10.00"), "first");
+
+        HttpResponse<String> first = get("accounts/" + id + "/balance", null);
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        assertNotNull(etag);
+        assertEquals(0, new BigDecimal("10.00").compareTo(json(first).get("balance").decimalValue()));
+
+        HttpResponse<String> unchanged = get("accounts/" + id + "/balance", etag);
+        assertEquals(304, unchanged.statusCode());
+        assertTrue(unchanged.body().isEmpty());
+
+        transactionService.deposit(id, new BigDecimal("5.00"), "second");
+        HttpResponse<String> changed = get("accounts/" + id + "/balance", etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null));
+        assertEquals(0, new BigDecimal("15.00").compareTo(json(changed).get("balance").decimalValue()));
+    }
+
+    @Test
+    void historyPagesWalkTheLedgerNewestFirst() throws Exception {
+        Long id = createAccount("History paging test");
+        for (int i = 1; i <= 5; i++) {
+            transactionService.deposit(id, BigDecimal.valueOf(i), "deposit " + i);
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        String query = "accounts/" + id + "/transactions?limit=2";
+        int pages = 0;
+        while (query != null) {
+            JsonNode page = json(get(query, null));
+            page.get("items").forEach(item -> descriptions.add(item.get("description").asText()));
+            JsonNode next = page.get("nextBeforeId");
+            query = next.isNull() ? null : "accounts/" + id + "/transactions?limit=2&beforeId=" + next.asLong();
+            pages++;
+        }
+
+        assertEquals(List.of("deposit 5", "deposit 4", "deposit 3", "deposit 2", "deposit 1"), descriptions);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void accountPagesReturnEveryAccountOnceInOrder() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createAccount("Paging test");
+        }
+
+        List<String> keys = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        String query = "accounts?limit=2";
+        while (query != null) {
+            JsonNode page = json(get(query, null));
+            for (JsonNode account : page.get("items")) {
+                assertTrue(seen.add(account.get("id").asLong()), "account listed twice: " + account);
+                keys.add(account.get("ownerName").asText() + "\u0000" + account.get("accountNumber").asText());
+            }
+            query = page.get("nextAfterOwner").isNull() ? null
+                : "accounts?limit=2&afterOwner=" + encode(page.get("nextAfterOwner").asText())
+                    + "&afterAccountNumber=" + encode(page.get("nextAfterAccountNumber").asText());
+        }
+
+        assertTrue(seen.containsAll(accountIds), "created accounts missing from the pages");
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(String::compareTo);
+        assertEquals(sorted, keys);
+    }
+
+    @Test
+    void saturatedReadsAreAnsweredWith503() throws Exception {
+        Long id = createAccount("Busy test");
+        get("accounts/" + id + "/balance", null);
+        // The limit adapts to earlier reads; take every slot it currently allows.
+        int limit = (int) registry.get("banking.admission.limit").tag("operation", LedgerResource.READ).gauge().value();
+        List<AdmissionController.Permit> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < limit; i++) {
+                held.add(admissionController.admit(LedgerResource.READ));
+            }
+            HttpResponse<String> busy = get("accounts/" + id + "/balance", null);
+            assertEquals(503, busy.statusCode());
+            assertFalse(busy.headers().firstValue("Retry-After").isEmpty());
+        } finally {
+            held.forEach(AdmissionController.Permit::close);
+        }
+        assertEquals(200, get("accounts/" + id + "/balance", null).statusCode());
+    }
+
+    @AfterEach
+    void deleteAccounts() {
+        QuarkusTransaction.requiringNew().run(() -> accountIds.forEach(id -> {
+            transactionRepository.delete("account.id", id);
+            accountRepository.deleteById(id);
+        }));
+    }
+
+    // --- Private helpers ---
+
+    private Long createAccount(String owner) {
+        Long id = accountService.createAccount(owner).getId();
+        accountIds.add(id);
+        return id;
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(api.resolve(path)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws Exception {
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
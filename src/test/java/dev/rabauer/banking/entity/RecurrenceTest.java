@@ -0,0 +1,76 @@
+package dev.rabauer.banking.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecurrenceTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Test
+    void onceHasOnlyTheFirstOccurrence() {
+        LocalDateTime first = LocalDateTime.of(2026, 3, 1, 8, 0);
+        assertEquals(first, Recurrence.ONCE.occurrence(first, 0));
+        assertNull(Recurrence.ONCE.occurrence(first, 1));
+    }
+
+    @Test
+    void monthlyOnThe31stClampsToShortMonthsAndReturnsToThe31st() {
+        LocalDateTime first = LocalDateTime.of(2026, 1, 31, 9, 0);
+
+        assertEquals(LocalDateTime.of(2026, 2, 28, 9, 0), Recurrence.MONTHLY.occurrence(first, 1));
+        assertEquals(LocalDateTime.of(2026, 3, 31, 9, 0), Recurrence.MONTHLY.occurrence(first, 2));
+        assertEquals(LocalDateTime.of(2026, 4, 30, 9, 0), Recurrence.MONTHLY.occurrence(first, 3));
+        assertEquals(LocalDateTime.of(2026, 5, 31, 9, 0), Recurrence.MONTHLY.occurrence(first, 4));
+    }
+
+    @Test
+    void monthlyHonoursLeapYears() {
+        LocalDateTime first = LocalDateTime.of(2027, 12, 31, 9, 0);
+        assertEquals(LocalDateTime.of(2028, 2, 29, 9, 0), Recurrence.MONTHLY.occurrence(first, 2));
+
+        LocalDateTime leapDay = LocalDateTime.of(2028, 2, 29, 9, 0);
+        assertEquals(LocalDateTime.of(2028, 3, 29, 9, 0), Recurrence.MONTHLY.occurrence(leapDay, 1));
+    }
+
+    @Test
+    void dailyKeepsTheWallClockTimeAcrossDaylightSavingChanges() {
+        // Europe/Berlin springs forward on 2026-03-29 and falls back on 2026-10-25.
+        LocalDateTime beforeSpring = LocalDateTime.of(2026, 3, 28, 8, 0);
+        LocalDateTime afterSpring = Recurrence.DAILY.occurrence(beforeSpring, 1);
+        assertEquals(LocalDateTime.of(2026, 3, 29, 8, 0), afterSpring);
+        assertEquals(Duration.ofHours(23), elapsed(beforeSpring, afterSpring));
+
+        LocalDateTime beforeFall = LocalDateTime.of(2026, 10, 24, 8, 0);
+        LocalDateTime afterFall = Recurrence.DAILY.occurrence(beforeFall, 1);
+        assertEquals(LocalDateTime.of(2026, 10, 25, 8, 0), afterFall);
+        assertEquals(Duration.ofHours(25), elapsed(beforeFall, afterFall));
+    }
+
+    @Test
+    void occurrenceInTheSpringGapDoesNotShiftLaterOccurrences() {
+        // 02:30 does not exist on 2026-03-29 in Berlin; that one runs at 03:30 local time.
+        LocalDateTime first = LocalDateTime.of(2026, 3, 28, 2, 30);
+        LocalDateTime inGap = Recurrence.DAILY.occurrence(first, 1);
+        assertEquals(LocalDateTime.of(2026, 3, 29, 3, 30), inGap.atZone(BERLIN).toLocalDateTime());
+
+        // Occurrences are derived from the first one, so the next day is back at 02:30.
+        assertEquals(LocalDateTime.of(2026, 3, 30, 2, 30), Recurrence.DAILY.occurrence(first, 2));
+    }
+
+    @Test
+    void weeklyAddsWholeWeeks() {
+        LocalDateTime first = LocalDateTime.of(2026, 10, 20, 7, 15);
+        assertEquals(LocalDateTime.of(2026, 11, 3, 7, 15), Recurrence.WEEKLY.occurrence(first, 2));
+    }
+
+    private static Duration elapsed(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from.atZone(BERLIN), to.atZone(BERLIN));
+    }
+}
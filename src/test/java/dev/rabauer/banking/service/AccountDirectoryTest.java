@@ -0,0 +1,113 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountDirectoryTest {
+
+    private final Map<Long, Account> database = new HashMap<>();
+    private final List<Long> lookups = new ArrayList<>();
+    private final AccountDirectory directory = new AccountDirectory();
+
+    AccountDirectoryTest() {
+        directory.accountRepository = new AccountRepository() {
+            @Override
+            public List<Account> listAll() {
+                return new ArrayList<>(database.values());
+            }
+
+            @Override
+            public Account findById(Long id) {
+                lookups.add(id);
+                return database.get(id);
+            }
+        };
+        directory.shardRouter = new ShardRouter() {
+            @Override
+            public boolean isRoutable(long id) {
+                return id > 0 && id < 1000;
+            }
+
+            @Override
+            public int shardOf(long id) {
+                return 0;
+            }
+
+            @Override
+            public <T> T callNew(int shard, Supplier<T> task) {
+                return task.get();
+            }
+
+            @Override
+            public <T> List<T> scatter(IntFunction<T> perShard) {
+                List<T> results = new ArrayList<>();
+                results.add(perShard.apply(0));
+                return results;
+            }
+        };
+    }
+
+    @Test
+    void missingIdIsLookedUpOnlyOnceWithinTheTtl() {
+        store(1, "DE1", "Alice");
+        assertEquals("Alice", directory.ownerName(1));
+
+        assertNull(directory.ownerName(42));
+        assertFalse(directory.contains(42));
+        assertEquals("42", directory.label(42));
+        assertEquals(List.of(42L), lookups);
+    }
+
+    @Test
+    void unroutableIdsNeverReachTheDatabase() {
+        assertFalse(directory.contains(-1));
+        assertFalse(directory.contains(5000));
+        assertEquals(List.of(), lookups);
+    }
+
+    @Test
+    void accountCreatedAfterAMissIsFound() {
+        store(1, "DE1", "Alice");
+        assertFalse(directory.contains(2));
+
+        store(2, "DE2", "Bob");
+        directory.onAccountCreated(new AccountCreated(2L, "DE2", "Bob", LocalDateTime.now()));
+
+        assertTrue(directory.contains(2));
+        assertEquals("Bob", directory.ownerName(2));
+    }
+
+    @Test
+    void accountCreatedOnAnotherNodeIsResolvedFromTheDatabase() {
+        store(1, "DE1", "Alice");
+        assertEquals(1, directory.size());
+
+        store(7, "DE7", "Carol");
+        assertEquals("DE7 (Carol)", directory.label(7));
+        assertEquals(2, directory.size());
+        assertEquals(List.of(7L), lookups);
+    }
+
+    private void store(long id, String number, String owner) {
+        Account account = new Account();
+        account.setId(id);
+        account.setAccountNumber(number);
+        account.setOwnerName(owner);
+        database.put(id, account);
+    }
+}
@@ -0,0 +1,110 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.sharding.ShardRouter;
+import jakarta.enterprise.inject.Vetoed;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** The k-way merge behind {@link AccountService#findPage}, and ids that belong to no shard. */
+class AccountServiceTest {
+
+    @Test
+    void mergeInterleavesShardsInOwnerOrder() {
+        List<List<Account>> perShard = List.of(
+            List.of(account("Alice", "DE1"), account("Carol", "DE3"), account("Erin", "DE5")),
+            List.of(account("Bob", "DE2"), account("Dave", "DE4")),
+            List.of());
+
+        assertEquals(List.of("Alice", "Bob", "Carol", "Dave", "Erin"), owners(AccountService.mergePage(perShard, 10)));
+        assertEquals(List.of("Alice", "Bob", "Carol"), owners(AccountService.mergePage(perShard, 3)));
+    }
+
+    @Test
+    void equalOwnersAreOrderedByAccountNumber() {
+        List<List<Account>> perShard = List.of(
+            List.of(account("Smith", "DE2"), account("Smith", "DE4")),
+            List.of(account("Smith", "DE1"), account("Smith", "DE3")));
+
+        assertEquals(List.of("DE1", "DE2", "DE3", "DE4"),
+            AccountService.mergePage(perShard, 4).stream().map(Account::getAccountNumber).toList());
+    }
+
+    @Test
+    void ownersCompareByteWiseLikeCollateC() {
+        // Upper case sorts before lower case, and "Z" before "Ä", as in COLLATE "C".
+        List<List<Account>> perShard = List.of(
+            List.of(account("Zoe", "DE1"), account("Änne", "DE3")),
+            List.of(account("Bob", "DE2"), account("adam", "DE4")));
+
+        assertEquals(List.of("Bob", "Zoe", "adam", "Änne"), owners(AccountService.mergePage(perShard, 4)));
+    }
+
+    @Test
+    void mergedPagesEqualTheSortedUnion() {
+        Random random = new Random(7);
+        List<List<Account>> perShard = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        List<Account> all = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Account account = account("Owner " + random.nextInt(40), String.format("DE%06d", i));
+            perShard.get(random.nextInt(perShard.size())).add(account);
+            all.add(account);
+        }
+        Comparator<Account> order = Comparator.comparing(Account::getOwnerName).thenComparing(Account::getAccountNumber);
+        perShard.forEach(accounts -> accounts.sort(order));
+        all.sort(order);
+
+        assertEquals(all, AccountService.mergePage(perShard, all.size()));
+        assertEquals(all.subList(0, 25), AccountService.mergePage(perShard, 25));
+    }
+
+    @Test
+    void idsOfNoShardAreNotFoundWithoutTouchingADatabase() {
+        AccountService service = new AccountService();
+        service.shardRouter = new SingleShardRouter();
+        long unroutable = 1L << (ShardRouter.SHARD_SHIFT + 1);
+
+        assertThrows(AccountNotFoundException.class, () -> service.calculateCurrentBalance(unroutable));
+        assertThrows(AccountNotFoundException.class, () -> service.ledgerVersion(unroutable));
+        assertThrows(AccountNotFoundException.class, () -> service.summarizeLedger(unroutable));
+        assertThrows(AccountNotFoundException.class, () -> service.calculateCurrentBalance(null));
+        assertEquals(Optional.empty(), service.findById(unroutable));
+        assertEquals(Map.of(), service.calculateCurrentBalances(List.of(unroutable, -1L)));
+    }
+
+    private static Account account(String owner, String number) {
+        Account account = new Account();
+        account.setOwnerName(owner);
+        account.setAccountNumber(number);
+        return account;
+    }
+
+    private static List<String> owners(List<Account> accounts) {
+        return accounts.stream().map(Account::getOwnerName).toList();
+    }
+
+    /** Routes shard 0 ids only and fails any attempt to open a transaction. */
+    @Vetoed
+    private static final class SingleShardRouter extends ShardRouter {
+
+        @Override
+        public boolean isRoutable(long id) {
+            return id > 0 && (id >>> SHARD_SHIFT) == 0;
+        }
+
+        @Override
+        public <T> T call(int shard, Supplier<T> task) {
+            throw new AssertionError("unexpected call on shard " + shard);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package dev.rabauer.banking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    private static final long TARGET = Duration.ofMillis(100).toNanos();
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void initialLimitIsClampedToBounds() {
+        assertEquals(5, limiter(50, 1, 5, 10, 1000).limit());
+        assertEquals(2, limiter(0, 2, 5, 10, 1000).limit());
+    }
+
+    @Test
+    void fastCallsAtFullUseGrowTheLimitByOneOverLimit() {
+        AdaptiveLimiter limiter = limiter(2, 1, 10, 10, 1000);
+        limiter.acquire();
+        limiter.acquire();
+
+        limiter.release(FAST);
+        assertEquals(2.5, limiter.limit(), 1e-9);
+
+        limiter.acquire();
+        limiter.release(FAST);
+        assertEquals(2.5 + 1 / 2.5, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void fastCallsBelowTheLimitLeaveItUnchanged() {
+        AdaptiveLimiter limiter = limiter(4, 1, 10, 10, 1000);
+        limiter.acquire();
+        limiter.release(FAST);
+        assertEquals(4, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void growthStopsAtMaxLimit() {
+        AdaptiveLimiter limiter = limiter(3, 1, 3, 10, 1000);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+        limiter.release(FAST);
+        assertEquals(3, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void slowCallsShrinkTheLimitMultiplicativelyDownToMinLimit() {
+        long[] now = {0};
+        AdaptiveLimiter limiter = limiter(10, 2, 10, 10, 1000, () -> now[0]);
+        now[0] += SLOW;
+        limiter.acquire();
+        limiter.release(SLOW);
+        assertEquals(9.0, limiter.limit(), 1e-9);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            now[0] += SLOW;
+            limiter.release(SLOW);
+        }
+        assertEquals(2, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void slowCallsOfOneWindowShrinkTheLimitOnce() {
+        long[] now = {0};
+        AdaptiveLimiter limiter = limiter(10, 1, 10, 10, 1000, () -> now[0]);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        now[0] += SLOW;
+        for (int i = 0; i < 5; i++) {
+            limiter.release(SLOW);
+            now[0] += FAST;
+        }
+        assertEquals(9.0, limiter.limit(), 1e-9);
+
+        // A call admitted after the decrease is the next window.
+        limiter.acquire();
+        now[0] += SLOW;
+        limiter.release(SLOW);
+        assertEquals(8.1, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void queuedCallerTimesOutWithServerBusy() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 1, 10, 50);
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(limiter::acquire);
+        Exception ex = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(ex.getCause() instanceof ServerBusyException, ex.toString());
+        assertTrue(waitedMillis >= 50, "waited only " + waitedMillis + " ms");
+        assertEquals(0, limiter.waiting());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    @Test
+    void queuedCallerIsAdmittedWhenASlotFrees() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 1, 10, 5000);
+        limiter.acquire();
+
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(limiter::acquire);
+        awaitWaiting(limiter, 1);
+        limiter.release(FAST);
+
+        waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(1, limiter.inFlight());
+        assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 1, 1, 5000);
+        limiter.acquire();
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            started.countDown();
+            limiter.acquire();
+        });
+        started.await();
+        awaitWaiting(limiter, 1);
+
+        long start = System.nanoTime();
+        assertThrows(ServerBusyException.class, limiter::acquire);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+        limiter.release(FAST);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    // --- Private helpers ---
+
+    private static AdaptiveLimiter limiter(int initial, int min, int max, int queueSize, long queueTimeoutMillis) {
+        return new AdaptiveLimiter("test", initial, min, max, queueSize,
+            TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis), TARGET);
+    }
+
+    private static AdaptiveLimiter limiter(int initial, int min, int max, int queueSize, long queueTimeoutMillis,
+                                           LongSupplier clock) {
+        return new AdaptiveLimiter("test", initial, min, max, queueSize,
+            TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis), TARGET, clock);
+    }
+
+    private static void awaitWaiting(AdaptiveLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.waiting() != expected) {
+            assertTrue(System.nanoTime() < deadline, "no caller queued");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.entity.Account;
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write storm against the real connection pool: far more callers than the pool has
+ * connections deposit into one account through {@link TransactionService}, whose admission
+ * control must queue or reject them while balance reads of the same account keep getting
+ * connections.
+ */
+@QuarkusTest
+class AdmissionControlLoadTest {
+
+    private static final int WRITERS = 200;
+    private static final Duration STORM = Duration.ofSeconds(3);
+
+    @Inject
+    TransactionService transactionService;
+
+    @Inject
+    AccountService accountService;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.max-size")
+    int poolSize;
+
+    @ConfigProperty(name = "banking.admission.max-limit")
+    int maxLimit;
+
+    @ConfigProperty(name = "banking.admission.queue-size")
+    int queueSize;
+
+    private Long accountId;
+
+    @Test
+    void balanceReadsCompleteWhileDepositsSaturateAdmission() throws Exception {
+        assertTrue(WRITERS > poolSize + maxLimit + queueSize, "the storm must exceed pool, limit and queue");
+        accountId = accountService.createAccount("Admission load test").getId();
+
+        LongAdder deposited = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger maxQueued = new AtomicInteger();
+        int reads = 0;
+        long end = System.nanoTime() + STORM.toNanos();
+
+        try (ExecutorService storm = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < WRITERS; i++) {
+                storm.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        try {
+                            transactionService.deposit(accountId, BigDecimal.ONE, "Admission load test");
+                            deposited.increment();
+                        } catch (ServerBusyException ex) {
+                            rejected.increment();
+                        } catch (RuntimeException ex) {
+                            failed.increment();
+                        }
+                    }
+                });
+            }
+            storm.submit(() -> {
+                while (System.nanoTime() < end) {
+                    maxInFlight.accumulateAndGet(gauge("banking.admission.in-flight"), Math::max);
+                    maxQueued.accumulateAndGet(gauge("banking.admission.queued"), Math::max);
+                    Thread.sleep(5);
+                }
+                return null;
+            });
+
+            // Every read must complete; one that could not get a connection would throw.
+            while (System.nanoTime() < end) {
+                accountService.calculateCurrentBalance(accountId);
+                reads++;
+            }
+        }
+
+        assertTrue(rejected.sum() > 0 || maxQueued.get() > 0, "the storm never saturated admission");
+        assertEquals(0, failed.sum(), "deposits failed other than with 503");
+        assertTrue(maxInFlight.get() <= maxLimit, "in flight " + maxInFlight.get() + " > limit " + maxLimit);
+        assertTrue(maxQueued.get() <= queueSize, "queued " + maxQueued.get() + " > queue size " + queueSize);
+        assertTrue(reads > 0, "no balance read completed during the storm");
+        assertEquals(0, BigDecimal.valueOf(deposited.sum()).compareTo(accountService.calculateCurrentBalance(accountId)),
+            "balance does not match the admitted deposits");
+    }
+
+    @AfterEach
+    void deleteAccount() {
+        if (accountId != null) {
+            QuarkusTransaction.requiringNew().run(() -> {
+                transactionRepository.delete("account.id", accountId);
+                accountRepository.deleteById(accountId);
+            });
+        }
+    }
+
+    private int gauge(String name) {
+        Gauge gauge = registry.find(name).tag("operation", "deposit").gauge();
+        return gauge != null ? (int) gauge.value() : 0;
+    }
+}
@@ -0,0 +1,170 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.repository.AccountRepository;
+import dev.rabauer.banking.repository.HistoryEntry;
+import dev.rabauer.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Group commit against the real database. max-delay is long enough for every deposit a test
+ * submits in a row to land in one group; wait-timeout is shorter than busy-timeout, so a
+ * caller gives up before its group does.
+ */
+@QuarkusTest
+@TestProfile(GroupCommitServiceTest.Enabled.class)
+class GroupCommitServiceTest {
+
+    public static class Enabled implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "banking.group-commit.enabled", "true",
+                "banking.group-commit.max-delay", "200ms",
+                "banking.group-commit.busy-timeout", "10s",
+                "banking.group-commit.wait-timeout", "1s");
+        }
+    }
+
+    /** Routes to shard 0 but belongs to no account. */
+    private static final long UNKNOWN_ACCOUNT = 1L << 40;
+
+    @Inject
+    GroupCommitService groupCommitService;
+
+    @Inject
+    AccountService accountService;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    AccountRepository accountRepository;
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @Test
+    void concurrentDepositsShareOneCommit() throws Exception {
+        Long first = createAccount("Group commit test");
+        Long second = createAccount("Group commit test");
+        long commitsBefore = commits();
+
+        List<CompletableFuture<HistoryEntry>> deposits = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            deposits.add(groupCommitService.submitDeposit(i % 2 == 0 ? first : second, BigDecimal.ONE, "grouped " + i));
+        }
+        CompletableFuture<HistoryEntry> unknown = groupCommitService.submitDeposit(UNKNOWN_ACCOUNT, BigDecimal.ONE, "unknown");
+
+        for (CompletableFuture<HistoryEntry> deposit : deposits) {
+            assertTrue(deposit.get(10, TimeUnit.SECONDS).id() > 0);
+        }
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> unknown.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(AccountNotFoundException.class, failure.getCause());
+
+        // 21 deposits, written with at most a couple of commits instead of one each.
+        long commits = commits() - commitsBefore;
+        assertTrue(commits <= 2, commits + " commits for 21 deposits");
+        assertBalance(first, "10");
+        assertBalance(second, "10");
+    }
+
+    @Test
+    void failedGroupIsRetriedOneByOne() throws Exception {
+        Long id = createAccount("Group commit fallback test");
+        double fallbacksBefore = fallbacks();
+
+        List<CompletableFuture<HistoryEntry>> good = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            good.add(groupCommitService.submitDeposit(id, BigDecimal.TEN, "good " + i));
+        }
+        // Longer than the description column: fails the group's batch, then only itself.
+        CompletableFuture<HistoryEntry> bad = groupCommitService.submitDeposit(id, BigDecimal.ONE, "x".repeat(501));
+
+        for (CompletableFuture<HistoryEntry> deposit : good) {
+            deposit.get(10, TimeUnit.SECONDS);
+        }
+        assertThrows(ExecutionException.class, () -> bad.get(10, TimeUnit.SECONDS));
+        assertEquals(fallbacksBefore + 1, fallbacks());
+        assertBalance(id, "50");
+    }
+
+    @Test
+    void depositStillQueuedAfterWaitTimeoutIsWithdrawn() throws Exception {
+        Long id = createAccount("Group commit timeout test");
+        groupCommitService.deposit(id, BigDecimal.ONE, "warm-up");
+
+        // With every deposit permit held, the group cannot start before the caller gives up.
+        int limit = (int) registry.get("banking.admission.limit").tag("operation", "deposit").gauge().value();
+        List<AdmissionController.Permit> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < limit; i++) {
+                held.add(admissionController.admit("deposit"));
+            }
+            assertThrows(ServerBusyException.class, () -> groupCommitService.deposit(id, BigDecimal.TEN, "withdrawn"));
+        } finally {
+            held.forEach(AdmissionController.Permit::close);
+        }
+
+        // Once this one is written, the flusher has passed the withdrawn deposit.
+        groupCommitService.deposit(id, BigDecimal.ONE, "after");
+        assertBalance(id, "2");
+    }
+
+    @AfterEach
+    void deleteAccounts() {
+        QuarkusTransaction.requiringNew().run(() -> accountIds.forEach(id -> {
+            transactionRepository.delete("account.id", id);
+            accountRepository.deleteById(id);
+        }));
+    }
+
+    // --- Private helpers ---
+
+    private Long createAccount(String owner) {
+        Long id = accountService.createAccount(owner).getId();
+        accountIds.add(id);
+        return id;
+    }
+
+    // The meters appear once the service is first used.
+    private long commits() {
+        Timer timer = registry.find("banking.group-commit.commit").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double fallbacks() {
+        Counter counter = registry.find("banking.group-commit.fallbacks").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private void assertBalance(Long id, String expected) {
+        assertEquals(0, new BigDecimal(expected).compareTo(accountService.calculateCurrentBalance(id)));
+    }
+}
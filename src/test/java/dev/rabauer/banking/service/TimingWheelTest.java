@@ -0,0 +1,166 @@
+package dev.rabauer.banking.service;
+
+import dev.rabauer.banking.service.TimingWheel.Placement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    /** 4 slots per level and 3 levels: ticks of 1 s, 4 s and 16 s, a horizon of 64 s. */
+    private static final long TICK = 1000;
+    private static final int SLOTS = 4;
+    private static final int LEVELS = 3;
+
+    @Test
+    void idExpiresInTheTickAfterItsDueTime() {
+        TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, 0);
+        assertEquals(Placement.SCHEDULED, wheel.add(1, 2_500));
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(2_999, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.advanceTo(3_000, expired::add);
+        assertEquals(List.of(1L), expired);
+    }
+
+    @Test
+    void idsOnHigherLevelsCascadeDownAndExpireOnTime() {
+        long start = 0;
+        TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, start);
+        long horizon = wheel.horizonMillis();
+        assertEquals(64 * TICK - 1, horizon);
+
+        // One id per millisecond offset would be slow; every 250 ms covers all slots of all levels.
+        Map<Long, Long> dueById = new HashMap<>();
+        for (long due = start; due <= horizon; due += 250) {
+            long id = dueById.size();
+            dueById.put(id, due);
+            assertEquals(Placement.SCHEDULED, wheel.add(id, due), "due " + due);
+        }
+        assertEquals(dueById.size(), wheel.size());
+
+        Map<Long, Long> expiredAt = new HashMap<>();
+        for (long time = start + TICK; time <= horizon + TICK; time += TICK) {
+            long now = time;
+            wheel.advanceTo(time, id -> assertEquals(null, expiredAt.put(id, now), "expired twice: " + id));
+        }
+
+        assertEquals(dueById.keySet(), expiredAt.keySet());
+        dueById.forEach((id, due) ->
+            assertEquals((due / TICK + 1) * TICK, expiredAt.get(id), "id due at " + due));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void randomScheduleMatchesExpectedExpiryWithUnalignedStartAndLargeSteps() {
+        Random random = new Random(42);
+        long start = 1_234_567;
+        TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, start);
+        long now = start - start % TICK;
+
+        Map<Long, Long> dueById = new HashMap<>();
+        Map<Long, Long> expiredAt = new HashMap<>();
+        long nextId = 0;
+        for (int round = 0; round < 500; round++) {
+            // Keep adding while time moves on, as the service does.
+            for (int i = 0; i < 5; i++) {
+                long due = now + (long) (random.nextDouble() * (wheel.horizonMillis() - now + 1));
+                if (wheel.add(nextId, due) == Placement.SCHEDULED) {
+                    dueById.put(nextId, due);
+                }
+                nextId++;
+            }
+            now += TICK * (1 + random.nextInt(3));
+            long time = now;
+            wheel.advanceTo(time, id -> expiredAt.put(id, time));
+        }
+        wheel.advanceTo(now + 64 * TICK, id -> expiredAt.put(id, -1L));
+
+        assertEquals(dueById.keySet(), expiredAt.keySet());
+        dueById.forEach((id, due) -> {
+            long at = expiredAt.get(id);
+            if (at >= 0) {
+                assertTrue(at > due && at - due <= 3 * TICK, "id due at " + due + " expired at " + at);
+            }
+        });
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void addReportsIdsThatAreAlreadyDueOrBeyondTheHorizon() {
+        TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, 10_000);
+
+        assertEquals(Placement.ALREADY_DUE, wheel.add(1, 9_999));
+        assertEquals(Placement.SCHEDULED, wheel.add(2, 10_000));
+        assertEquals(Placement.SCHEDULED, wheel.add(3, wheel.horizonMillis()));
+        assertEquals(Placement.BEYOND_HORIZON, wheel.add(4, wheel.horizonMillis() + 1));
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    void horizonAdvancesWithEveryTopLevelTick() {
+        TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, 0);
+        assertEquals(63_999, wheel.horizonMillis());
+        assertEquals(Placement.BEYOND_HORIZON, wheel.add(1, 70_000));
+
+        wheel.advanceTo(15_000, id -> { });
+        assertEquals(63_999, wheel.horizonMillis());
+
+        wheel.advanceTo(16_000, id -> { });
+        assertEquals(79_999, wheel.horizonMillis());
+        assertEquals(Placement.SCHEDULED, wheel.add(1, 70_000));
+    }
+
+    @Test
+    void everyTimeUpToTheHorizonIsAcceptedWhateverTheStart() {
+        for (long start = 0; start < 16_000; start += 700) {
+            TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, start);
+            long horizon = wheel.horizonMillis();
+            assertTrue(horizon >= start - start % TICK + 48 * TICK, "horizon " + horizon + " for start " + start);
+            for (long due = start - start % TICK; due <= horizon; due += 100) {
+                assertEquals(Placement.SCHEDULED, wheel.add(due, due), "start " + start + ", due " + due);
+            }
+            assertEquals(Placement.BEYOND_HORIZON, wheel.add(-1, horizon + 1));
+        }
+    }
+
+    @Test
+    void guaranteedSpanIsTheShortestReachOfTheHorizon() {
+        long shortest = Long.MAX_VALUE;
+        for (long start = 0; start < 64_000; start++) {
+            TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, start);
+            shortest = Math.min(shortest, wheel.horizonMillis() - start);
+        }
+        assertEquals(48 * TICK, new TimingWheel(TICK, SLOTS, LEVELS, 0).guaranteedSpanMillis());
+        assertEquals(48 * TICK, shortest);
+    }
+
+    @Test
+    void expiredIdsAreRemovedFromTheWheel() {
+        TimingWheel wheel = new TimingWheel(TICK, SLOTS, LEVELS, 0);
+        wheel.add(1, 500);
+        wheel.add(2, 500);
+        wheel.add(3, 20_000);
+        assertEquals(3, wheel.size());
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(1_000, expired::add);
+        assertEquals(List.of(1L, 2L), expired);
+        assertEquals(1, wheel.size());
+
+        // A full rotation of every level later, nothing comes back.
+        expired.clear();
+        wheel.advanceTo(200_000, expired::add);
+        assertEquals(List.of(3L), expired);
+        assertEquals(0, wheel.size());
+    }
+}
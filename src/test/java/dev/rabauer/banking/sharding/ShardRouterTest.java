@@ -0,0 +1,94 @@
+package dev.rabauer.banking.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardRouterTest {
+
+    private static final long SHARD_1 = 1L << ShardRouter.SHARD_SHIFT;
+
+    @Test
+    void shardIsReadFromTheHighBitsOfTheId() {
+        ShardRouter router = router(3);
+        assertEquals(0, router.shardOf(1));
+        assertEquals(0, router.shardOf(SHARD_1 - 1));
+        assertEquals(1, router.shardOf(SHARD_1));
+        assertEquals(1, router.shardOf(281474976710657L));
+        assertEquals(2, router.shardOf(2 * SHARD_1 + 42));
+    }
+
+    @Test
+    void idsOfUnconfiguredShardsAreRejected() {
+        ShardRouter router = router(2);
+        assertThrows(IllegalArgumentException.class, () -> router.shardOf(2 * SHARD_1));
+        assertThrows(IllegalArgumentException.class, () -> router.shardOf(-1));
+        assertFalse(router.isRoutable(2 * SHARD_1));
+        assertFalse(router.isRoutable(-1));
+        assertFalse(router.isRoutable(0));
+        assertTrue(router.isRoutable(1));
+        assertTrue(router.isRoutable(2 * SHARD_1 - 1));
+    }
+
+    @Test
+    void singleShardRoutesOnlyShardZeroIds() {
+        ShardRouter router = router(1);
+        assertTrue(router.isRoutable(SHARD_1 - 1));
+        assertFalse(router.isRoutable(SHARD_1));
+        assertEquals(List.of(0), router.shards());
+    }
+
+    @Test
+    void firstIdIsTheStartOfEachShardsIdSpace() {
+        ShardRouter router = router(32);
+        assertEquals(1, ShardRouter.firstId(0));
+        assertEquals(SHARD_1, ShardRouter.firstId(1));
+        assertEquals(31 * SHARD_1, ShardRouter.firstId(31));
+        for (int shard = 0; shard < 32; shard++) {
+            assertEquals(shard, router.shardOf(ShardRouter.firstId(shard)));
+            if (shard > 0) {
+                assertEquals(shard - 1, router.shardOf(ShardRouter.firstId(shard) - 1));
+            }
+        }
+        // 32 shards stay within the range a JavaScript number holds exactly.
+        assertTrue(ShardRouter.firstId(32) - 1 <= (1L << 53));
+    }
+
+    @Test
+    void sameShardComparesOnlyTheShardBits() {
+        assertTrue(ShardRouter.sameShard(1, SHARD_1 - 1));
+        assertTrue(ShardRouter.sameShard(SHARD_1, SHARD_1 + 5));
+        assertFalse(ShardRouter.sameShard(SHARD_1 - 1, SHARD_1));
+    }
+
+    @Test
+    void partitionGroupsByShardInAscendingOrder() {
+        ShardRouter router = router(2);
+        Map<Integer, List<Long>> byShard = router.partition(List.of(SHARD_1 + 1, 3L, SHARD_1, 1L), Long::longValue);
+        assertEquals(List.of(0, 1), List.copyOf(byShard.keySet()));
+        assertEquals(List.of(3L, 1L), byShard.get(0));
+        assertEquals(List.of(SHARD_1 + 1, SHARD_1), byShard.get(1));
+    }
+
+    @Test
+    void accountNumbersHashToAConfiguredShard() {
+        ShardRouter router = router(3);
+        for (int i = 0; i < 1000; i++) {
+            int shard = router.shardOfAccountNumber("DE261019" + i);
+            assertTrue(shard >= 0 && shard < 3, "shard " + shard);
+        }
+        assertEquals(router.shardOfAccountNumber("DE2610191234"), router.shardOfAccountNumber("DE2610191234"));
+    }
+
+    private static ShardRouter router(int shards) {
+        ShardRouter router = new ShardRouter();
+        router.shardCount = shards;
+        return router;
+    }
+}
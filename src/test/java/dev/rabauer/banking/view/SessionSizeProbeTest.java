@@ -0,0 +1,134 @@
+package dev.rabauer.banking.view;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import dev.rabauer.banking.service.AccountDirectory;
+import dev.rabauer.banking.service.AccountService;
+import jakarta.enterprise.inject.Vetoed;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serialized size of the account list per UI: the entity-backed grid the view used to hold
+ * against the id grid rendered from the shared {@link AccountDirectory}.
+ */
+class SessionSizeProbeTest {
+
+    private static final int ACCOUNTS = 2_000;
+    private static final int PAGE = 50;
+
+    @Test
+    void idGridRetainsAFractionOfTheEntityGrid() {
+        long entityBacked = SessionSizeProbe.measure(new EntityBackedListView(ACCOUNTS));
+        long idBacked = SessionSizeProbe.measure(scrolledIdBackedView(10));
+
+        assertTrue(entityBacked > 0 && idBacked > 0, "measurement failed: " + entityBacked + ", " + idBacked);
+        assertTrue(idBacked * 4 < entityBacked,
+            "id grid " + idBacked + " bytes vs entity grid " + entityBacked + " bytes for " + ACCOUNTS + " accounts");
+    }
+
+    @Test
+    void idGridDoesNotGrowWithTheNumberOfAccountsOrPagesScrolled() {
+        long fewPages = SessionSizeProbe.measure(scrolledIdBackedView(3));
+        long manyPages = SessionSizeProbe.measure(scrolledIdBackedView(30));
+
+        // The balance cache keeps three pages; anything beyond must be evicted.
+        assertTrue(manyPages <= fewPages + 1_000, "3 pages: " + fewPages + " bytes, 30 pages: " + manyPages + " bytes");
+    }
+
+    /** The view as it is, after the grid fetched the given number of pages. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AccountListView scrolledIdBackedView(int pages) {
+        AccountListView view = new AccountListView(new StubAccountService(), new StubDirectory(ACCOUNTS));
+        Grid<Long> grid = view.getChildren()
+            .filter(Grid.class::isInstance).map(c -> (Grid<Long>) c)
+            .findFirst().orElseThrow();
+        DataProvider provider = grid.getDataProvider();
+        for (int page = 0; page < pages; page++) {
+            provider.fetch(new Query(page * PAGE, PAGE, List.of(), null, null)).count();
+        }
+        return view;
+    }
+
+    /**
+     * State of the list view before the directory: every account of the list and every
+     * balance in the UI. Rows stand in for the Account entities with the same fields; the
+     * entities also carried Hibernate state, so the real difference was larger.
+     */
+    private static final class EntityBackedListView extends VerticalLayout {
+
+        private final Map<Long, BigDecimal> balanceCache = new HashMap<>();
+
+        EntityBackedListView(int accounts) {
+            Grid<Row> grid = new Grid<>(Row.class, false);
+            grid.addColumn(Row::accountNumber).setHeader("Account Number").setSortable(true);
+            grid.addColumn(Row::ownerName).setHeader("Owner").setSortable(true);
+            grid.addColumn(r -> balanceCache.getOrDefault(r.id(), BigDecimal.ZERO).toPlainString())
+                .setHeader("Balance");
+            grid.addColumn(Row::createdAt).setHeader("Created");
+            List<Row> rows = new ArrayList<>();
+            for (long id = 1; id <= accounts; id++) {
+                rows.add(new Row(id, number(id), owner(id), LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(id)));
+                balanceCache.put(id, BigDecimal.valueOf(id * 100, 2));
+            }
+            grid.setItems(rows);
+            add(grid);
+        }
+    }
+
+    private record Row(Long id, String accountNumber, String ownerName, LocalDateTime createdAt) implements Serializable {
+    }
+
+    /** Vetoed so the stubs do not become beans when the Quarkus tests boot the application. */
+    @Vetoed
+    private static final class StubDirectory extends AccountDirectory {
+
+        private final int size;
+
+        StubDirectory(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public List<Long> page(String sortProperty, boolean descending, int offset, int limit) {
+            return LongStream.rangeClosed(offset + 1, Math.min((long) offset + limit, size)).boxed().toList();
+        }
+    }
+
+    @Vetoed
+    private static final class StubAccountService extends AccountService {
+
+        @Override
+        public Map<Long, BigDecimal> calculateCurrentBalances(Collection<Long> accountIds) {
+            Map<Long, BigDecimal> balances = new HashMap<>();
+            accountIds.forEach(id -> balances.put(id, BigDecimal.valueOf(id * 100, 2)));
+            return balances;
+        }
+    }
+
+    private static String number(long id) {
+        return String.format("DE26010%05d", id);
+    }
+
+    private static String owner(long id) {
+        return "Owner " + id;
+    }
+}